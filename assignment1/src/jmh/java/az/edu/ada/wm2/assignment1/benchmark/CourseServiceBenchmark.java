@@ -0,0 +1,41 @@
+package az.edu.ada.wm2.assignment1.benchmark;
+
+import az.edu.ada.wm2.assignment1.dto.CourseSummary;
+import az.edu.ada.wm2.assignment1.model.Course;
+import az.edu.ada.wm2.assignment1.service.impl.CourseService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the course listing paths: all course entities and the cached catalog.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CourseServiceBenchmark {
+
+	private CourseService courseService;
+
+	@Setup
+	public void setUp(SeededApplication app) {
+		courseService = app.bean(CourseService.class);
+	}
+
+	@Benchmark
+	public List<Course> list() {
+		return courseService.list();
+	}
+
+	@Benchmark
+	public List<CourseSummary> listCatalog() {
+		return courseService.listCatalog();
+	}
+}
@@ -0,0 +1,47 @@
+package az.edu.ada.wm2.assignment1.benchmark;
+
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the enrollment flow: a student enrolls in a random course and drops it again,
+ * so the data set stays the same size across iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class EnrollmentBenchmark {
+
+	private EnrollmentService enrollmentService;
+	private long[] studentIds;
+	private long[] courseIds;
+
+	@Setup
+	public void setUp(SeededApplication app) {
+		enrollmentService = app.bean(EnrollmentService.class);
+		studentIds = app.studentIds;
+		courseIds = app.courseIds;
+	}
+
+	@Benchmark
+	public void enrollAndDrop(Blackhole blackhole) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		long studentId = studentIds[random.nextInt(studentIds.length)];
+		long courseId = courseIds[random.nextInt(courseIds.length)];
+		EnrollmentService.Result result = enrollmentService.enroll(studentId, courseId);
+		blackhole.consume(result);
+		if (result == EnrollmentService.Result.ENROLLED) {
+			blackhole.consume(enrollmentService.drop(studentId, courseId));
+		}
+	}
+}
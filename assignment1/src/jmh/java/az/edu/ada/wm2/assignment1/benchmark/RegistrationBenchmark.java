@@ -0,0 +1,114 @@
+package az.edu.ada.wm2.assignment1.benchmark;
+
+import az.edu.ada.wm2.assignment1.dto.RegistrationTicket;
+import az.edu.ada.wm2.assignment1.model.EnrollmentId;
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentService;
+import az.edu.ada.wm2.assignment1.service.impl.RegistrationQueue;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of a registration rush: a burst of enrollment requests from many concurrent clients,
+ * applied either synchronously, one transaction per request, or through the registration queue,
+ * which group-commits them. The enrollments of a burst are dropped again after every iteration.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RegistrationBenchmark {
+
+	private static final Duration TIMEOUT = Duration.ofMinutes(1);
+
+	/**
+	 * Number of enrollment requests in a burst.
+	 */
+	@Param({"2000"})
+	public int requests;
+
+	/**
+	 * Number of concurrent clients sending them.
+	 */
+	@Param({"64"})
+	public int clients;
+
+	private EnrollmentService enrollmentService;
+	private RegistrationQueue registrationQueue;
+	private ExecutorService executor;
+	private List<EnrollmentId> burst;
+	private final List<EnrollmentId> enrolled = new ArrayList<>();
+
+	@Setup(Level.Trial)
+	public void setUp(SeededApplication app) {
+		enrollmentService = app.bean(EnrollmentService.class);
+		registrationQueue = app.bean(RegistrationQueue.class);
+		executor = Executors.newFixedThreadPool(clients);
+	}
+
+	@Setup(Level.Iteration)
+	public void newBurst(SeededApplication app) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		burst = new ArrayList<>(requests);
+		for (int i = 0; i < requests; i++) {
+			burst.add(new EnrollmentId(app.studentIds[random.nextInt(app.studentIds.length)],
+					app.courseIds[random.nextInt(app.courseIds.length)]));
+		}
+		enrolled.clear();
+	}
+
+	@TearDown(Level.Iteration)
+	public void dropBurst() {
+		enrolled.forEach(id -> enrollmentService.drop(id.getStudentId(), id.getCourseId()));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Benchmark
+	public int synchronous() throws Exception {
+		List<Future<EnrollmentService.Result>> results = new ArrayList<>(requests);
+		for (EnrollmentId request : burst) {
+			results.add(executor.submit(() -> enrollmentService.enroll(request.getStudentId(), request.getCourseId())));
+		}
+		for (int i = 0; i < requests; i++) {
+			if (results.get(i).get() == EnrollmentService.Result.ENROLLED) {
+				enrolled.add(burst.get(i));
+			}
+		}
+		return enrolled.size();
+	}
+
+	@Benchmark
+	public int queued() throws Exception {
+		List<Future<RegistrationTicket>> results = new ArrayList<>(requests);
+		for (EnrollmentId request : burst) {
+			results.add(executor.submit(() -> registrationQueue.submit(request.getStudentId(), request.getCourseId())
+					.flatMap(ticket -> registrationQueue.await(ticket.id(), TIMEOUT))
+					.orElseThrow()));
+		}
+		for (int i = 0; i < requests; i++) {
+			if (results.get(i).get().status() == RegistrationTicket.Status.ENROLLED) {
+				enrolled.add(burst.get(i));
+			}
+		}
+		return enrolled.size();
+	}
+}
@@ -0,0 +1,134 @@
+package az.edu.ada.wm2.assignment1.benchmark;
+
+import az.edu.ada.wm2.assignment1.Assignment1Application;
+import az.edu.ada.wm2.assignment1.model.Course;
+import az.edu.ada.wm2.assignment1.model.Student;
+import az.edu.ada.wm2.assignment1.repository.CourseRepository;
+import az.edu.ada.wm2.assignment1.repository.StudentRepository;
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentAnalytics;
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentService;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Benchmark state holding a running application context on a private in-memory H2 database,
+ * seeded with a reproducible data set whose size is set by the JMH parameters.
+ */
+@State(Scope.Benchmark)
+public class SeededApplication {
+
+	static final String[] NAMES = {"Ravan", "Kimse", "Aysel", "Murad", "Leyla", "Nigar", "Farid", "Kamran", "Sabina", "Orkhan"};
+	static final String[] SURNAMES = {"Mammadov", "Aliyev", "Huseynov", "Quliyeva", "Hasanov", "Ismayilova", "Abbasov", "Karimli"};
+	static final String[] MAJORS = {"Computer Science", "Computer Engineering", "Information Technology", "Law", "Finance"};
+
+	private static final int SEED = 42;
+	private static final int BATCH = 1000;
+
+	/**
+	 * Number of seeded students.
+	 */
+	@Param({"1000", "10000"})
+	public int students;
+
+	/**
+	 * Number of seeded courses.
+	 */
+	@Param({"50"})
+	public int courses;
+
+	/**
+	 * Number of courses every seeded student is enrolled in.
+	 */
+	@Param({"4"})
+	public int coursesPerStudent;
+
+	ConfigurableApplicationContext context;
+	long[] studentIds;
+	long[] courseIds;
+
+	@Setup(Level.Trial)
+	public void start() {
+		context = new SpringApplicationBuilder(Assignment1Application.class)
+				.web(WebApplicationType.NONE)
+				// Passed as arguments: default properties would lose to application.properties
+				.run("--spring.datasource.url=jdbc:h2:mem:jmh-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1",
+						"--spring.main.banner-mode=off",
+						"--spring.jpa.show-sql=false",
+						"--spring.jpa.properties.hibernate.generate_statistics=false",
+						"--logging.level.root=WARN");
+		seed();
+	}
+
+	@TearDown(Level.Trial)
+	public void stop() {
+		context.close();
+	}
+
+	<T> T bean(Class<T> type) {
+		return context.getBean(type);
+	}
+
+	private void seed() {
+		SplittableRandom random = new SplittableRandom(SEED);
+		CourseRepository courseRepo = bean(CourseRepository.class);
+		StudentRepository studentRepo = bean(StudentRepository.class);
+		EnrollmentAnalytics analytics = bean(EnrollmentAnalytics.class);
+
+		List<Course> newCourses = new ArrayList<>();
+		for (int i = 0; i < courses; i++) {
+			Course course = new Course();
+			course.setCourseName("Course " + i);
+			course.setTeacherName(SURNAMES[random.nextInt(SURNAMES.length)]);
+			course.setCourseDescription("Seeded course " + i);
+			course.setCredit(2 + random.nextInt(5));
+			// Every student may take every course, so enrollment benchmarks never hit a full course
+			course.setCapacity(students + 1);
+			newCourses.add(course);
+		}
+		courseIds = courseRepo.saveAll(newCourses).stream().mapToLong(Course::getId).toArray();
+
+		studentIds = new long[students];
+		List<Student> batch = new ArrayList<>(BATCH);
+		int seeded = 0;
+		for (int i = 0; i < students; i++) {
+			batch.add(Student.builder()
+					.name(NAMES[random.nextInt(NAMES.length)])
+					.surname(SURNAMES[random.nextInt(SURNAMES.length)])
+					.major(MAJORS[random.nextInt(MAJORS.length)])
+					.dateOfBirth(LocalDate.of(1995, 1, 1).plusDays(random.nextInt(3650)))
+					.build());
+			if (batch.size() == BATCH || i == students - 1) {
+				List<Long> saved = studentRepo.saveAll(batch).stream().map(Student::getId).toList();
+				analytics.studentsCreated(saved);
+				for (Long id : saved) {
+					studentIds[seeded++] = id;
+				}
+				batch.clear();
+			}
+		}
+
+		EnrollmentService enrollmentService = bean(EnrollmentService.class);
+		for (int c = 0; c < courses; c++) {
+			List<Long> cohort = new ArrayList<>();
+			for (long studentId : studentIds) {
+				if (random.nextInt(courses) < coursesPerStudent) {
+					cohort.add(studentId);
+				}
+			}
+			enrollmentService.enrollAll(cohort, List.of(courseIds[c]));
+		}
+	}
+}
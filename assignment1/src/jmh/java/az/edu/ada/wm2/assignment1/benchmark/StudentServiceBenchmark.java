@@ -0,0 +1,53 @@
+package az.edu.ada.wm2.assignment1.benchmark;
+
+import az.edu.ada.wm2.assignment1.dto.KeysetPage;
+import az.edu.ada.wm2.assignment1.model.Student;
+import az.edu.ada.wm2.assignment1.service.impl.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks of the student listing paths: the name LIKE query and the sorted keyset pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StudentServiceBenchmark {
+
+	private StudentService studentService;
+
+	@Setup
+	public void setUp(SeededApplication app) {
+		studentService = app.bean(StudentService.class);
+	}
+
+	@Benchmark
+	public List<Student> findByNameIgnoreCase() {
+		return studentService.findByNameIgnoreCase("rav");
+	}
+
+	@Benchmark
+	public KeysetPage<Student> sortBySurnameFirstPage() {
+		return studentService.sortStudentByProperty(Sort.Direction.ASC, "surname", null, false, null, null);
+	}
+
+	@Benchmark
+	public KeysetPage<Student> sortBySurnameMiddlePage() {
+		// Starts halfway through the alphabet of seeded surnames, as a client paging deep into the list would
+		return studentService.sortStudentByProperty(Sort.Direction.ASC, "surname", "Huseynov", false, 0L, null);
+	}
+
+	@Benchmark
+	public KeysetPage<Student> sortByMajorDescending() {
+		return studentService.sortStudentByProperty(Sort.Direction.DESC, "major", null, false, null, null);
+	}
+}
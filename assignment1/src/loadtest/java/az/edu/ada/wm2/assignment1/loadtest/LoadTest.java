@@ -0,0 +1,298 @@
+package az.edu.ada.wm2.assignment1.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load test against a running instance of the application.
+ * A number of virtual users replay a weighted mix of list, search, sort, info, enroll and drop requests
+ * for a fixed duration after a warm-up, and the throughput and p50/p99/p999 latency of every endpoint are
+ * printed and written as JSON.
+ *
+ * Options (all --name=value): baseUrl, users, warmupSeconds, durationSeconds, seed, report.
+ * Student and course IDs are taken from the first and last pages of the JSON API, so the harness works
+ * against the small default data set as well as a synthetic one.
+ */
+public class LoadTest {
+
+    private static final String[] SEARCH_TERMS = {"rav", "mam", "aliy", "computer", "law", "nig", "kar", "fin", "ley"};
+    private static final String[] SORT_PROPERTIES = {"name", "surname", "major"};
+    private static final Pattern ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    private final String baseUrl;
+    private final long[] studentRange;
+    private final long[] courseRange;
+
+    private LoadTest(String baseUrl) throws IOException, InterruptedException {
+        this.baseUrl = baseUrl;
+        this.studentRange = idRange("/api/v1/students");
+        this.courseRange = idRange("/api/v1/courses");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+        String baseUrl = options.getOrDefault("baseUrl", "http://localhost:8080");
+        int users = Integer.parseInt(options.getOrDefault("users", "32"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmupSeconds", "10"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("durationSeconds", "60"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Path report = Path.of(options.getOrDefault("report", "build/results/loadtest/report.json"));
+
+        LoadTest test = new LoadTest(baseUrl);
+        System.out.printf("Load test against %s: %d users, %ds warm-up, %ds measured, students %d-%d, courses %d-%d%n",
+                baseUrl, users, warmupSeconds, durationSeconds,
+                test.studentRange[0], test.studentRange[1], test.courseRange[0], test.courseRange[1]);
+
+        test.run(users, seed, warmupSeconds, false);
+        Map<String, Recorder> results = test.run(users, seed + 1, durationSeconds, true);
+
+        System.out.println(format(results, durationSeconds));
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.writeString(report, toJson(results, durationSeconds, users));
+        System.out.println("Report written to " + report.toAbsolutePath());
+    }
+
+    /**
+     * Runs the workload for the given number of seconds and returns the per-endpoint recorders.
+     */
+    private Map<String, Recorder> run(int users, long seed, int seconds, boolean record) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(seconds).toNanos();
+        List<VirtualUser> workers = new ArrayList<>();
+        SplittableRandom seeds = new SplittableRandom(seed);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < users; i++) {
+                VirtualUser user = new VirtualUser(seeds.split(), deadline);
+                workers.add(user);
+                executor.submit(user);
+            }
+        }
+        Map<String, Recorder> merged = new LinkedHashMap<>();
+        if (record) {
+            for (Operation operation : Operation.values()) {
+                Recorder total = new Recorder();
+                workers.forEach(worker -> total.merge(worker.recorders.get(operation.name)));
+                merged.put(operation.name, total);
+            }
+        }
+        return merged;
+    }
+
+    /**
+     * The workload mix; weights are relative frequencies.
+     */
+    private enum Operation {
+        LIST("list", 30), SEARCH("search", 20), SORT("sort", 15), INFO("info", 20), ENROLL("enroll", 8), DROP("drop", 7);
+
+        final String name;
+        final int weight;
+
+        Operation(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+
+        static Operation pick(SplittableRandom random) {
+            int total = 0;
+            for (Operation operation : values()) {
+                total += operation.weight;
+            }
+            int roll = random.nextInt(total);
+            for (Operation operation : values()) {
+                roll -= operation.weight;
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            throw new IllegalStateException();
+        }
+    }
+
+    private final class VirtualUser implements Runnable {
+        private final SplittableRandom random;
+        private final long deadline;
+        private final Map<String, Recorder> recorders = new LinkedHashMap<>();
+        // Enrollments made by this user, dropped again by later drop operations
+        private final Deque<long[]> enrolled = new ArrayDeque<>();
+
+        VirtualUser(SplittableRandom random, long deadline) {
+            this.random = random;
+            this.deadline = deadline;
+            for (Operation operation : Operation.values()) {
+                recorders.put(operation.name, new Recorder());
+            }
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < deadline) {
+                Operation operation = Operation.pick(random);
+                if (operation == Operation.DROP && enrolled.isEmpty()) {
+                    operation = Operation.ENROLL;
+                }
+                long studentId = randomId(studentRange);
+                long courseId = randomId(courseRange);
+                String path = switch (operation) {
+                    case LIST -> "/student/?size=20&after=" + (random.nextInt(4) == 0 ? randomId(studentRange) : 0);
+                    case SEARCH -> "/student/search?name=" + SEARCH_TERMS[random.nextInt(SEARCH_TERMS.length)];
+                    case SORT -> "/student/sort/" + SORT_PROPERTIES[random.nextInt(SORT_PROPERTIES.length)]
+                            + "?dir=" + (random.nextBoolean() ? "asc" : "desc");
+                    case INFO -> "/student/info/" + studentId;
+                    case ENROLL -> "/course/takeCourse/" + studentId + "/selectedCourse/" + courseId;
+                    case DROP -> {
+                        long[] pair = enrolled.poll();
+                        yield "/student/drop/" + pair[0] + "/course/" + pair[1];
+                    }
+                };
+                long start = System.nanoTime();
+                Optional<HttpResponse<Void>> response = send(path);
+                long nanos = System.nanoTime() - start;
+                boolean ok = response.isPresent() && response.get().statusCode() < 400;
+                recorders.get(operation.name).record(nanos, ok);
+                if (ok && operation == Operation.ENROLL && response.get().headers().firstValue("Location")
+                        .filter(location -> location.endsWith("/course/takeCourse/" + studentId)).isPresent()) {
+                    enrolled.add(new long[]{studentId, courseId});
+                }
+            }
+        }
+
+        private long randomId(long[] range) {
+            return range[0] + random.nextLong(range[1] - range[0] + 1);
+        }
+    }
+
+    private Optional<HttpResponse<Void>> send(String path) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30)).GET().build();
+            return Optional.of(client.send(request, HttpResponse.BodyHandlers.discarding()));
+        } catch (IOException e) {
+            return Optional.empty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Finds the smallest and largest ID of a JSON API listing by paging through it with the largest page size.
+     * Keyset pages cost the same at any depth, so this takes a few seconds even for 200k students.
+     */
+    private long[] idRange(String listing) throws IOException, InterruptedException {
+        long first = -1;
+        long last = -1;
+        long after = 0;
+        while (true) {
+            String body = client.send(HttpRequest.newBuilder(URI.create(baseUrl + listing + "?size=100&after=" + after)).build(),
+                    HttpResponse.BodyHandlers.ofString()).body();
+            Matcher matcher = ID.matcher(body);
+            long pageLast = -1;
+            while (matcher.find()) {
+                pageLast = Long.parseLong(matcher.group(1));
+                if (first < 0) {
+                    first = pageLast;
+                }
+            }
+            if (pageLast < 0) {
+                break;
+            }
+            last = pageLast;
+            if (!body.contains("\"hasNext\":true")) {
+                break;
+            }
+            after = pageLast;
+        }
+        if (first < 0) {
+            throw new IllegalStateException(listing + " returned no rows; is the application running with data?");
+        }
+        return new long[]{first, last};
+    }
+
+    /**
+     * Latency samples and error count of one endpoint.
+     */
+    private static final class Recorder {
+        private long[] samples = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos, boolean ok) {
+            if (!ok) {
+                errors++;
+            }
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+        }
+
+        void merge(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.samples[i], true);
+            }
+            errors += other.errors;
+        }
+
+        double percentileMillis(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, count);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100 * count) - 1;
+            return sorted[Math.max(0, Math.min(index, count - 1))] / 1_000_000.0;
+        }
+    }
+
+    private static String format(Map<String, Recorder> results, int seconds) {
+        StringBuilder out = new StringBuilder(String.format(Locale.ROOT, "%-8s %10s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        results.forEach((name, recorder) -> out.append(String.format(Locale.ROOT,
+                "%-8s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n", name, recorder.count, recorder.errors,
+                (double) recorder.count / seconds, recorder.percentileMillis(50), recorder.percentileMillis(99),
+                recorder.percentileMillis(99.9), recorder.percentileMillis(100))));
+        return out.toString();
+    }
+
+    private static String toJson(Map<String, Recorder> results, int seconds, int users) {
+        StringBuilder json = new StringBuilder(String.format(Locale.ROOT,
+                "{\"durationSeconds\":%d,\"users\":%d,\"endpoints\":{", seconds, users));
+        String separator = "";
+        for (Map.Entry<String, Recorder> entry : results.entrySet()) {
+            Recorder recorder = entry.getValue();
+            json.append(separator).append(String.format(Locale.ROOT,
+                    "\"%s\":{\"requests\":%d,\"errors\":%d,\"throughput\":%.2f,\"p50\":%.3f,\"p99\":%.3f,\"p999\":%.3f,\"max\":%.3f}",
+                    entry.getKey(), recorder.count, recorder.errors, (double) recorder.count / seconds,
+                    recorder.percentileMillis(50), recorder.percentileMillis(99), recorder.percentileMillis(99.9),
+                    recorder.percentileMillis(100)));
+            separator = ",";
+        }
+        return json.append("}}\n").toString();
+    }
+}
@@ -0,0 +1,150 @@
+package az.edu.ada.wm2.assignment1.loadtest;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Measures how long the application takes from process start to the first successful /student response.
+ * Every startup variant (plain, with the CDS archive, and with Spring AOT when the jar was built with it)
+ * is started the given number of times, round robin so that drift affects all variants alike, after one
+ * discarded warm-up start each. Min, median, mean and max are printed and written as JSON.
+ * The archive variants run with -Xshare:on, so a stale archive fails the run instead of timing a start without it.
+ *
+ * Options (all --name=value): jar, archive, java, aot, runs, report.
+ */
+public class StartupBenchmark {
+
+    private static final Duration TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+    private final String java;
+    private final Path jar;
+
+    private StartupBenchmark(String java, Path jar) {
+        this.java = java;
+        this.jar = jar;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "true");
+        }
+        Path jar = Path.of(options.getOrDefault("jar", "build/cds/app.jar"));
+        Path archive = Path.of(options.getOrDefault("archive", "build/cds/app.jsa"));
+        String java = options.getOrDefault("java", Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        boolean aot = Boolean.parseBoolean(options.getOrDefault("aot", "false"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        Path report = Path.of(options.getOrDefault("report", "build/results/startup/report.json"));
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("plain", List.of());
+        if (Files.exists(archive)) {
+            variants.put("cds", List.of("-Xshare:on", "-XX:SharedArchiveFile=" + archive));
+        }
+        if (aot) {
+            variants.put("aot", List.of("-Dspring.aot.enabled=true"));
+            if (Files.exists(archive)) {
+                variants.put("aot+cds", List.of("-Dspring.aot.enabled=true", "-Xshare:on",
+                        "-XX:SharedArchiveFile=" + archive));
+            }
+        }
+
+        StartupBenchmark benchmark = new StartupBenchmark(java, jar);
+        Map<String, long[]> results = new LinkedHashMap<>();
+        for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+            benchmark.startOnce(variant.getValue());
+            results.put(variant.getKey(), new long[runs]);
+        }
+        for (int run = 0; run < runs; run++) {
+            for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+                long millis = benchmark.startOnce(variant.getValue());
+                results.get(variant.getKey())[run] = millis;
+                System.out.printf("%-8s run %d: %d ms%n", variant.getKey(), run + 1, millis);
+            }
+        }
+
+        StringBuilder json = new StringBuilder("{\"runs\":" + runs + ",\"variants\":{");
+        System.out.printf("%n%-8s %8s %8s %8s %8s%n", "variant", "min ms", "p50 ms", "mean ms", "max ms");
+        String separator = "";
+        for (Map.Entry<String, long[]> entry : results.entrySet()) {
+            long[] sorted = entry.getValue().clone();
+            Arrays.sort(sorted);
+            long median = sorted[(sorted.length - 1) / 2];
+            double mean = Arrays.stream(sorted).average().orElse(0);
+            System.out.printf(Locale.ROOT, "%-8s %8d %8d %8.0f %8d%n", entry.getKey(), sorted[0], median, mean,
+                    sorted[sorted.length - 1]);
+            json.append(separator).append(String.format(Locale.ROOT,
+                    "\"%s\":{\"min\":%d,\"p50\":%d,\"mean\":%.1f,\"max\":%d,\"samples\":%s}", entry.getKey(),
+                    sorted[0], median, mean, sorted[sorted.length - 1], Arrays.toString(entry.getValue())));
+            separator = ",";
+        }
+        json.append("}}\n");
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.writeString(report, json.toString());
+        System.out.println("Report written to " + report.toAbsolutePath());
+    }
+
+    /**
+     * Starts the application with the given JVM options, waits for the first 200 response of /student and stops it.
+     * @return The milliseconds from process start to that response.
+     */
+    private long startOnce(List<String> jvmOptions) throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(java);
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-jar", jar.toString(), "--server.port=" + port, "--spring.main.banner-mode=off"));
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/student"))
+                .timeout(Duration.ofSeconds(5))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(jar.toAbsolutePath().getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = start + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (ConnectException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("No successful /student response within " + TIMEOUT + ": " + command);
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
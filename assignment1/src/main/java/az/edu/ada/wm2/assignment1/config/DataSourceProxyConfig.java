@@ -0,0 +1,51 @@
+package az.edu.ada.wm2.assignment1.config;
+
+import az.edu.ada.wm2.assignment1.monitoring.SlowQueryLog;
+import az.edu.ada.wm2.assignment1.monitoring.SqlStatementCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application's DataSource in a datasource-proxy that times every JDBC statement, feeds the
+ * sampled slow query log and counts statements and fetched rows per request.
+ * The proxy unwraps to the underlying Hikari pool, so the pool metrics still bind to it.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<MeterRegistry> registry,
+                                                                 @Value("${app.sql.slow-query.threshold:200ms}") Duration threshold,
+                                                                 @Value("${app.sql.slow-query.sample-rate:1.0}") double sampleRate) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // Routing and lazy data sources only delegate to pools that are proxied themselves
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ProxyDataSource
+                        || bean instanceof DelegatingDataSource || bean instanceof AbstractRoutingDataSource) {
+                    return bean;
+                }
+                SqlStatementCounter counter = new SqlStatementCounter();
+                return ProxyDataSourceBuilder.create(dataSource)
+                        .name(beanName)
+                        .listener(new SlowQueryLog(registry.getObject(), threshold, sampleRate))
+                        .listener(counter)
+                        // Result sets are proxied only so that the counter sees every fetched row
+                        .proxyResultSet()
+                        .methodListener(counter)
+                        .build();
+            }
+        };
+    }
+}
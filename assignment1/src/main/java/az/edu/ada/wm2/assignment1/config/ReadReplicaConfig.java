@@ -0,0 +1,136 @@
+package az.edu.ada.wm2.assignment1.config;
+
+import az.edu.ada.wm2.assignment1.datasource.ReadWriteRoutingDataSource;
+import az.edu.ada.wm2.assignment1.datasource.ReadYourWritesInterceptor;
+import az.edu.ada.wm2.assignment1.datasource.ReplicaReadJpaDialect;
+import az.edu.ada.wm2.assignment1.datasource.ReplicaSync;
+import az.edu.ada.wm2.assignment1.service.impl.CatalogCache;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Read/write split for the "replica" profile: read-only transactions are served by a replica pool and everything
+ * else by the primary pool, so list, search and info traffic can be scaled apart from enrollment writes.
+ * Locally the replica is a second H2 database that ReplicaSync refreshes from the primary every lag interval.
+ * Clients read their own writes: after a write their reads stay on the primary until the replica must have caught up.
+ */
+@Configuration
+@Profile("replica")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username}") String username,
+                                              @Value("${app.datasource.replica.password}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(username).password(password).build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * The catalog cache is resolved lazily: it needs the entity manager factory, which is built on the data source
+     * that depends on this bean.
+     */
+    @Bean
+    public ReplicaSync replicaSync(DataSourceProperties properties, @Lazy CatalogCache catalogCache,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.datasource.replica.url}") String url,
+                                   @Value("${app.datasource.replica.username}") String username,
+                                   @Value("${app.datasource.replica.password}") String password,
+                                   @Value("${app.datasource.replica.lag:2s}") Duration lag,
+                                   @Value("${app.datasource.replica.max-staleness:10s}") Duration maxStaleness,
+                                   @Value("${app.datasource.replica.max-table-rows:100000}") long maxTableRows) {
+        return new ReplicaSync(
+                new ReplicaSync.Endpoint(properties.determineUrl(), properties.determineUsername(), properties.determinePassword()),
+                new ReplicaSync.Endpoint(url, username, password),
+                lag, maxStaleness, maxTableRows, catalogCache::evictAll, meterRegistry);
+    }
+
+    @Bean
+    public ApplicationListener<ApplicationReadyEvent> replicaSyncStarter(ReplicaSync replicaSync) {
+        return event -> replicaSync.start();
+    }
+
+    /**
+     * The data source used by JPA, JDBC and Flyway. The lazy proxy defers the physical connection to the first
+     * statement, by which time the transaction's read-only flag is known to the routing data source.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary,
+                                 @Qualifier("replicaDataSource") DataSource replica,
+                                 ReplicaSync replicaSync) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(replicaSync::isFresh);
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Installs ReplicaReadJpaDialect on the entity manager factory before it initializes, so the transaction
+     * manager and every other user of the factory take the dialect from it. Static, as a post-processor;
+     * the replica's freshness is looked up when a transaction begins.
+     */
+    @Bean
+    public static BeanPostProcessor replicaReadJpaDialectInstaller(ObjectProvider<ReplicaSync> replicaSync) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof LocalContainerEntityManagerFactoryBean factory) {
+                    factory.setJpaDialect(new ReplicaReadJpaDialect(() -> replicaSync.getObject().isFresh()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Pins a client's reads to the primary for the replica's maximum staleness after each of its writes.
+     */
+    @Bean
+    public WebMvcConfigurer readYourWritesConfigurer(
+            @Value("${app.datasource.replica.max-staleness:10s}") Duration maxStaleness) {
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(new ReadYourWritesInterceptor(maxStaleness));
+            }
+        };
+    }
+}
@@ -0,0 +1,28 @@
+package az.edu.ada.wm2.assignment1.config;
+
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentService;
+import az.edu.ada.wm2.assignment1.service.impl.RegistrationQueue;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Registration queue for enrollment rushes. The queue always serves the registration API; with
+ * app.registration.queued=true (the "rush" profile) the "Take" button of the course pages goes through it as well.
+ */
+@Configuration
+public class RegistrationConfig {
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public RegistrationQueue registrationQueue(EnrollmentService enrollmentService, MeterRegistry meterRegistry,
+                                               @Value("${app.registration.queued:false}") boolean queued,
+                                               @Value("${app.registration.queue-capacity:10000}") int capacity,
+                                               @Value("${app.registration.batch-size:500}") int batchSize,
+                                               @Value("${app.registration.ticket-retention:10m}") Duration ticketRetention) {
+        return new RegistrationQueue(enrollmentService, queued, capacity, batchSize, ticketRetention,
+                meterRegistry);
+    }
+}
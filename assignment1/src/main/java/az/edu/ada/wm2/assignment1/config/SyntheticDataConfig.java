@@ -0,0 +1,35 @@
+package az.edu.ada.wm2.assignment1.config;
+
+import az.edu.ada.wm2.assignment1.service.impl.SyntheticDataGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Loads a synthetic data set at startup when the "synthetic" profile is active.
+ * Runs before the application reports ready, so the student search index is built over the generated rows.
+ */
+@Configuration
+@Profile("synthetic")
+public class SyntheticDataConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SyntheticDataConfig.class);
+
+    @Bean
+    public ApplicationRunner syntheticDataLoader(SyntheticDataGenerator generator,
+                                                 @Value("${synthetic-data.seed:42}") long seed,
+                                                 @Value("${synthetic-data.students:200000}") int students,
+                                                 @Value("${synthetic-data.courses:2000}") int courses,
+                                                 @Value("${synthetic-data.courses-per-student:15}") int coursesPerStudent) {
+        return args -> {
+            SyntheticDataGenerator.Summary summary = generator.generate(seed, students, courses, coursesPerStudent);
+            log.info("Generated {} students, {} courses and {} enrollments (seed {}, checksum {}) in {} ms",
+                    summary.students(), summary.courses(), summary.enrollments(), seed, summary.checksum(),
+                    summary.elapsedMillis());
+        };
+    }
+}
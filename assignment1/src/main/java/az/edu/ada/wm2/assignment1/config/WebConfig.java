@@ -1,15 +1,55 @@
 package az.edu.ada.wm2.assignment1.config;
 
 
+import az.edu.ada.wm2.assignment1.monitoring.SqlStatementInterceptor;
+import az.edu.ada.wm2.assignment1.view.FragmentCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
+import org.thymeleaf.ITemplateEngine;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
+    MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for WebConfig.
+     * @param meterRegistry The registry the per-request SQL metrics are recorded in.
+     */
+    public WebConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public FragmentCache fragmentCache(ITemplateEngine templateEngine,
+                                       @Value("${app.fragment-cache.max-size:8MB}") DataSize maxSize) {
+        return new FragmentCache(templateEngine, meterRegistry, maxSize);
+    }
 
     @Override
     public void addViewControllers(ViewControllerRegistry registry) {
         registry.addViewController("/").setViewName("index");
     }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new SqlStatementInterceptor(meterRegistry));
+        // pages answered with ETags: browsers keep them but revalidate on every visit
+        WebContentInterceptor revalidate = new WebContentInterceptor();
+        revalidate.addCacheMapping(CacheControl.noCache().cachePrivate(),
+                "/course", "/course/", "/course/list", "/course/takeCourse/*",
+                "/student/{id:\\d+}", "/student/info/*");
+        registry.addInterceptor(revalidate);
+        // registration tickets change until their batch is applied
+        WebContentInterceptor noStore = new WebContentInterceptor();
+        noStore.addCacheMapping(CacheControl.noStore(), "/course/registration/*", "/api/v1/registrations/*");
+        registry.addInterceptor(noStore);
+    }
 }
@@ -0,0 +1,72 @@
+package az.edu.ada.wm2.assignment1.controller;
+
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentAnalytics;
+import az.edu.ada.wm2.assignment1.service.impl.StudentService;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+/**
+ * Controller class responsible for the enrollment analytics: credit loads per student, student counts and average
+ * loads per major and fill rates per course, all read from incrementally maintained counters.
+ */
+@Controller
+@RequestMapping("/analytics")
+public class AnalyticsController {
+    EnrollmentAnalytics analytics;
+    StudentService studentService;
+
+    /**
+     * Constructor for AnalyticsController.
+     * @param analytics Service maintaining and reporting the enrollment analytics.
+     * @param studentService Service handling Student-related operations.
+     */
+    public AnalyticsController(EnrollmentAnalytics analytics, StudentService studentService){
+        this.analytics=analytics;
+        this.studentService=studentService;
+    }
+
+    /**
+     * Displays the per-major totals, the course fill rates and one page of student credit loads.
+     * @param after The ID of the last student on the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @param model Model to be populated with data for the view.
+     * @return The view template for displaying the analytics.
+     */
+    @GetMapping({"","/"})
+    public String getAnalytics(@RequestParam(required = false) Long after,
+                               @RequestParam(required = false) Integer size,
+                               Model model){
+        model.addAttribute("majors", analytics.listMajors());
+        model.addAttribute("courses", analytics.listFillRates());
+        model.addAttribute("page", studentService.listPage(after, size));
+        return "analytics/index";
+    }
+
+    /**
+     * Compares the maintained counters with totals recomputed from the base tables, without changing anything.
+     * @param model Model to be populated with the consistency report.
+     * @return The view template for displaying the consistency report.
+     */
+    @GetMapping("/verify")
+    public String verify(Model model){
+        model.addAttribute("consistency", analytics.verify());
+        model.addAttribute("rebuilt", false);
+        return "analytics/consistency";
+    }
+
+    /**
+     * Recomputes every counter from the base tables and reports the drift that was repaired.
+     * @param model Model to be populated with the consistency report.
+     * @return The view template for displaying the consistency report.
+     */
+    @PostMapping("/rebuild")
+    public String rebuild(Model model){
+        model.addAttribute("consistency", analytics.rebuild());
+        model.addAttribute("rebuilt", true);
+        return "analytics/consistency";
+    }
+}
@@ -0,0 +1,58 @@
+package az.edu.ada.wm2.assignment1.controller;
+
+import az.edu.ada.wm2.assignment1.model.Course;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Controller class exposing Hibernate second-level and query cache hit/miss statistics as JSON, for cache tuning.
+ */
+@RestController
+public class CacheStatisticsController {
+    EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Constructor for CacheStatisticsController.
+     * @param entityManagerFactory The JPA entity manager factory backed by Hibernate.
+     */
+    public CacheStatisticsController(EntityManagerFactory entityManagerFactory){
+        this.entityManagerFactory=entityManagerFactory;
+    }
+
+    /**
+     * Reports overall and per-region cache statistics since startup.
+     * @return The statistics keyed by name.
+     */
+    @GetMapping("/stats/cache")
+    public Map<String, Object> cacheStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        result.put("secondLevelCachePuts", statistics.getSecondLevelCachePutCount());
+        result.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        result.put("queryCachePuts", statistics.getQueryCachePutCount());
+        result.put(Course.CACHE_REGION, region(statistics.getDomainDataRegionStatistics(Course.CACHE_REGION)));
+        result.put(Course.CATALOG_QUERY_REGION, region(statistics.getQueryRegionStatistics(Course.CATALOG_QUERY_REGION)));
+        return result;
+    }
+
+    private static Map<String, Object> region(CacheRegionStatistics region) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (region != null) {
+            result.put("hits", region.getHitCount());
+            result.put("misses", region.getMissCount());
+            result.put("puts", region.getPutCount());
+            result.put("elementsInMemory", region.getElementCountInMemory());
+        }
+        return result;
+    }
+}
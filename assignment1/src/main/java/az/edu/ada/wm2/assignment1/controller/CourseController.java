@@ -1,15 +1,30 @@
 package az.edu.ada.wm2.assignment1.controller;
 
+import az.edu.ada.wm2.assignment1.dto.CourseSummary;
+import az.edu.ada.wm2.assignment1.dto.KeysetPage;
 import az.edu.ada.wm2.assignment1.model.Course;
-import az.edu.ada.wm2.assignment1.model.Student;
 import az.edu.ada.wm2.assignment1.service.impl.CourseService;
+import az.edu.ada.wm2.assignment1.service.impl.CsvImportService;
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentService;
+import az.edu.ada.wm2.assignment1.service.impl.RegistrationQueue;
 import az.edu.ada.wm2.assignment1.service.impl.StudentService;
+import az.edu.ada.wm2.assignment1.view.FragmentCache;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.ModelAndView;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller class responsible for handling requests related to courses.
@@ -22,32 +37,50 @@ import java.util.List;
 public class CourseController {
     CourseService courseService;
     StudentService studentService;
+    EnrollmentService enrollmentService;
+    CsvImportService csvImportService;
+    FragmentCache fragmentCache;
+    RegistrationQueue registrationQueue;
 
     /**
      * Constructor for the CourseController class.
-     * Initializes CourseService and StudentService.
+     * Initializes CourseService, StudentService, EnrollmentService, CsvImportService, FragmentCache and RegistrationQueue.
      * @param courseService An instance of CourseService.
      * @param studentService An instance of StudentService.
+     * @param enrollmentService An instance of EnrollmentService.
+     * @param csvImportService An instance of CsvImportService.
+     * @param fragmentCache The cache of the rendered course tables.
+     * @param registrationQueue The queue of enrollment requests used in registration-rush mode.
      */
-    public CourseController(CourseService courseService, StudentService studentService){
+    public CourseController(CourseService courseService, StudentService studentService,
+                            EnrollmentService enrollmentService, CsvImportService csvImportService,
+                            FragmentCache fragmentCache, RegistrationQueue registrationQueue){
         this.courseService=courseService;
         this.studentService=studentService;
+        this.enrollmentService=enrollmentService;
+        this.csvImportService=csvImportService;
+        this.fragmentCache=fragmentCache;
+        this.registrationQueue=registrationQueue;
     }
 
     /**
      * Retrieves a list of courses and their details.
-     * Populates the model with course data and returns the view name for displaying the course list.
+     * Populates the model with the read-only course catalog, including enrollment counts,
+     * and returns the view name for displaying the course list.
+     * Answers 304 Not Modified after one version lookup if the client's copy carries the current catalog version.
+     * The course table is rendered once per catalog version and then served from the fragment cache.
+     * @param request The current request, checked for a matching If-None-Match header.
      * @param model The model to be populated with course data.
-     * @return The view name for displaying the course list.
+     * @return The view name for displaying the course list, or null if the client's copy is up to date.
      */
     @GetMapping({"","/","/list"})
-    public String getCourses(Model model){
-        List<Course> courses= courseService.list();
-        for(Course course: courses){
-            course.setNumberOfStudents(course.getStudents().size());
-            courseService.save(course);
+    public String getCourses(NativeWebRequest request, Model model){
+        String version = courseService.getCatalogETag();
+        if (request.checkNotModified(version)) {
+            return null;
         }
-        model.addAttribute("courses",courses);
+        model.addAttribute("catalogTable", fragmentCache.render(request, "courses/fragments", "catalog", version,
+                () -> Map.of("courses", courseService.listCatalog())));
         return "courses/index";
     }
 
@@ -79,16 +112,41 @@ public class CourseController {
 
     /**
      * Saves a new or updated course.
-     * Redirects to the course list view after saving.
+     * Redirects to the course list view after saving, or shows the form again if the course is invalid,
+     * e.g. has a capacity below one seat or below the seats already taken.
      * @param course The course object to be saved or updated.
-     * @return The redirect URL for displaying the course list.
+     * @param bindingResult The validation result of the submitted course.
+     * @return The redirect URL for displaying the course list, or the form view with the validation errors.
      */
     @PostMapping("/")
-    public String save(@ModelAttribute("course") Course course) {
-        courseService.save(course);
+    public String save(@Valid @ModelAttribute("course") Course course, BindingResult bindingResult) {
+        if (bindingResult.hasErrors()) {
+            return course.getId() == null ? "courses/new" : "courses/update";
+        }
+        courseService.save(course, bindingResult);
+        if (bindingResult.hasErrors()) {
+            return "courses/update";
+        }
         return "redirect:/course/";
     }
 
+    /**
+     * Imports courses from an uploaded CSV file with the columns course_name, teacher_name, course_description,
+     * credit and an optional capacity. The file is streamed line by line.
+     * @param file The uploaded CSV file.
+     * @param model The model to be populated with the import report.
+     * @return The view name for displaying the import report.
+     * @throws IOException if the uploaded file cannot be read.
+     */
+    @PostMapping("/import")
+    public String importCourses(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            model.addAttribute("report", csvImportService.importCourses(in));
+        }
+        model.addAttribute("backUrl", "/course");
+        return "import_report";
+    }
+
     /**
      * Displays detailed information about a specific course.
      * Retrieves the course by its ID and adds it to the model, then returns the view name for displaying course details.
@@ -110,49 +168,110 @@ public class CourseController {
      */
     @GetMapping("/delete/{id}")
     public String delete(@PathVariable Long id) {
-        courseService.deleteStudentsFromCourse(id);
         courseService.deleteById(id);
         return "redirect:/course/";
     }
 
     /**
      * Displays available courses for a student to enroll.
-     * Retrieves the list of courses and adds it to the model along with the student ID.
+     * Retrieves one page of the courses the student does not take yet and adds it to the model along with the student ID.
+     * Answers 304 Not Modified after two version lookups if the client's copy carries the current versions of the
+     * student and of the catalog, which also changes with every enrollment. The table differs per student, so it is
+     * rendered with the page rather than taken from the fragment cache.
      * @param studentId The ID of the student who wants to enroll.
+     * @param after The ID of the last course on the previous page, or null for the first page.
+     * @param size The page size, or null for the default.
+     * @param request The current request, checked for a matching If-None-Match header.
      * @param model The model to be populated with course data.
-     * @return The view name for displaying available courses for enrollment.
+     * @return The view name for displaying available courses for enrollment, or null if the client's copy is up to date.
+     * @throws ResponseStatusException with 404 if the student does not exist.
      */
     @GetMapping("/takeCourse/{studentId}")
-    public String listAvailableCourses(@PathVariable Long studentId, Model model){
-        List<Course> courses=courseService.list();
-        model.addAttribute("courses",courses);
+    public String listAvailableCourses(@PathVariable Long studentId,
+                                       @RequestParam(required = false) Long after,
+                                       @RequestParam(required = false) Integer size,
+                                       WebRequest request,
+                                       Model model){
+        String version = studentService.getInfoETag(studentId).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Student " + studentId + " does not exist"));
+        if (request.checkNotModified(version)) {
+            return null;
+        }
+        KeysetPage<CourseSummary> page = courseService.listAvailableFor(studentId, after, size);
+        model.addAttribute("courses", page.getContent());
+        model.addAttribute("page", page);
         model.addAttribute("studentId",studentId);
         return "courses/take_course";
     }
 
     /**
      * Enrolls a student in a selected course.
-     * Checks if the student is not already enrolled in the course, then adds the course to the student's enrollment list.
-     * Increments the number of students enrolled in the course and saves the changes.
-     * Redirects to the course enrollment page after enrollment.
+     * Enrollment and the seat counter update happen in one transaction through EnrollmentService,
+     * which refuses the enrollment once the course capacity is reached.
+     * In registration-rush mode the request goes through the registration queue instead and the ticket page is shown
+     * right away, so no request thread waits for a batch; if the queue is full the student is sent back to the course
+     * list with a notice to try again.
+     * Redirects to the course enrollment page after enrollment, back to it with a notice if the course is full,
+     * or to the student page if the student already takes the course.
      * @param courseId The ID of the course to be enrolled in.
      * @param studentId The ID of the student who wants to enroll.
      * @return The redirect URL for displaying the course enrollment page.
+     * @throws ResponseStatusException with 404 if the course or the student does not exist.
      */
     @GetMapping("/takeCourse/{studentId}/selectedCourse/{courseId}")
     public String addCourseToStudent(@PathVariable Long courseId,@PathVariable Long studentId){
-        Student student = studentService.getById(studentId);
-        Course course = courseService.getById(courseId);
+        if (registrationQueue.isQueued()) {
+            return registrationQueue.submit(studentId, courseId)
+                    .map(ticket -> "redirect:/course/registration/" + ticket.id())
+                    .orElse("redirect:/course/takeCourse/{studentId}?busy={courseId}");
+        }
+        return switch (enrollmentService.enroll(studentId, courseId)) {
+            case ENROLLED -> "redirect:/course/takeCourse/{studentId}";
+            case COURSE_FULL -> "redirect:/course/takeCourse/{studentId}?full={courseId}";
+            case ALREADY_ENROLLED -> "redirect:/student/info/{studentId}";
+            case COURSE_NOT_FOUND -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Course " + courseId + " does not exist");
+            case STUDENT_NOT_FOUND -> throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Student " + studentId + " does not exist");
+        };
+    }
 
-        if(!student.getCourses().contains(course)){
-            student.getCourses().add(course);
-            studentService.save(student);
+    /**
+     * Displays the state of a queued enrollment request; the page refreshes itself until the request is done.
+     * @param id The ID of the registration ticket.
+     * @param model Model to be populated with the ticket.
+     * @return The view template for displaying the ticket.
+     * @throws ResponseStatusException with 404 if the ticket is unknown or has expired.
+     */
+    @GetMapping("/registration/{id}")
+    public String getRegistration(@PathVariable String id, Model model){
+        model.addAttribute("ticket", registrationQueue.find(id).orElseThrow(() ->
+                new ResponseStatusException(HttpStatus.NOT_FOUND, "Registration " + id + " does not exist")));
+        return "courses/registration";
+    }
 
-            // Increment numberOfStudents property of the course
-            course.setNumberOfStudents(course.getNumberOfStudents() + 1);
-            courseService.save(course);
-            return "redirect:/course/takeCourse/{studentId}";
-        }
-        return "redirect:/student/info/{studentId}";
+    /**
+     * Enrolls a cohort of students in a set of courses in one transaction.
+     * The cohort is either every student of a major or an explicit list of student IDs.
+     * Redirects to the course list with the number of created enrollments.
+     * @param major The major whose students are enrolled, used when no student IDs are given.
+     * @param studentIds The IDs of the students to enroll.
+     * @param courseIds The IDs of the courses to enroll them in.
+     * @return The redirect URL for displaying the course list.
+     * @throws ResponseStatusException with 404 if a course does not exist, or 409 if a course lacks the seats;
+     *         no enrollment is created then.
+     */
+    @PostMapping("/enroll/bulk")
+    public String bulkEnroll(@RequestParam(required = false) String major,
+                             @RequestParam(required = false) List<Long> studentIds,
+                             @RequestParam List<Long> courseIds) {
+        EnrollmentService.BulkResult result = (studentIds != null && !studentIds.isEmpty())
+                ? enrollmentService.enrollAll(studentIds, courseIds)
+                : enrollmentService.enrollMajor(major, courseIds);
+        return switch (result.result()) {
+            case COURSE_NOT_FOUND -> throw new ResponseStatusException(HttpStatus.NOT_FOUND,
+                    "Course " + result.courseId() + " does not exist");
+            case COURSE_FULL -> throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Course " + result.courseId() + " does not have enough free seats");
+            default -> "redirect:/course/?enrolled=" + result.created();
+        };
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,36 @@
 package az.edu.ada.wm2.assignment1.controller;
 
 
-import az.edu.ada.wm2.assignment1.model.Course;
+import az.edu.ada.wm2.assignment1.dto.KeysetPage;
+import az.edu.ada.wm2.assignment1.dto.SearchPage;
 import az.edu.ada.wm2.assignment1.model.Student;
-import az.edu.ada.wm2.assignment1.service.impl.CourseService;
+import az.edu.ada.wm2.assignment1.service.impl.CsvImportService;
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentService;
+import az.edu.ada.wm2.assignment1.service.impl.StudentExportService;
 import az.edu.ada.wm2.assignment1.service.impl.StudentService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Controller class responsible for handling HTTP requests related to Student entities.
@@ -19,7 +39,9 @@ import java.util.List;
 @RequestMapping("/student")
 public class StudentController {
     StudentService studentService;
-    CourseService courseService;
+    EnrollmentService enrollmentService;
+    CsvImportService csvImportService;
+    StudentExportService studentExportService;
     List<String> majorsList = Arrays.asList(
             "Computer Science",
             "Computer Engineering",
@@ -30,27 +52,34 @@ public class StudentController {
             "Finance",
             "Business Administration"
     );
-    private boolean isAsc=true;
 
     /**
      * Constructor for StudentController.
      * @param studentService Service handling Student-related operations.
-     * @param courseService Service handling Course-related operations.
+     * @param enrollmentService Service handling enrollment of students into courses.
+     * @param csvImportService Service handling CSV bulk imports.
+     * @param studentExportService Service handling streaming exports of students.
      */
-    public StudentController(StudentService studentService,CourseService courseService){
+    public StudentController(StudentService studentService,EnrollmentService enrollmentService,
+                             CsvImportService csvImportService,StudentExportService studentExportService){
         this.studentService=studentService;
-        this.courseService=courseService;
+        this.enrollmentService=enrollmentService;
+        this.csvImportService=csvImportService;
+        this.studentExportService=studentExportService;
     }
 
     /**
-     * Retrieves and displays a list of all students.
+     * Retrieves and displays one page of students.
+     * @param after The ID of the last student on the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
      * @param model Model to be populated with data for the view.
      * @return The view template for displaying a list of students.
      */
     @GetMapping({"","/","/list"})
-    public String getStudents(Model model){
-        List<Student> students= studentService.list();
-        model.addAttribute("students",students);
+    public String getStudents(@RequestParam(required = false) Long after,
+                              @RequestParam(required = false) Integer size,
+                              Model model){
+        addPage(model, studentService.listPage(after, size));
         return "students/index";
     }
 
@@ -77,15 +106,53 @@ public class StudentController {
         return "redirect:/student/";
     }
 
+    /**
+     * Imports students from an uploaded CSV file with the columns name, surname, major, date_of_birth.
+     * The file is streamed line by line; rows with a major outside the majors list are rejected.
+     * @param file The uploaded CSV file.
+     * @param model Model to be populated with the import report.
+     * @return The view template for displaying the import report.
+     * @throws IOException if the uploaded file cannot be read.
+     */
+    @PostMapping("/import")
+    public String importStudents(@RequestParam("file") MultipartFile file, Model model) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            model.addAttribute("report", csvImportService.importStudents(in, majorsList));
+        }
+        model.addAttribute("backUrl", "/student");
+        return "import_report";
+    }
+
+    /**
+     * Exports all students with their enrollments as CSV or newline-delimited JSON.
+     * The response is streamed: rows are written as they are read from the database.
+     * @param format The export format, "csv" (default) or "ndjson".
+     * @return The streaming response body.
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStudents(@RequestParam(defaultValue = "csv") String format) {
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        StreamingResponseBody body = ndjson ? studentExportService::exportNdjson : studentExportService::exportCsv;
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.APPLICATION_NDJSON : MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=students." + (ndjson ? "ndjson" : "csv"))
+                .body(body);
+    }
+
     /**
      * Displays information about a specific student.
+     * Answers 304 Not Modified after a version lookup if the client's copy is up to date.
      * @param model Model to be populated with data for the view.
      * @param id The ID of the student to retrieve information for.
-     * @return The view template for displaying student information.
+     * @param request The current request, checked for a matching If-None-Match header.
+     * @return The view template for displaying student information, or null if the client's copy is up to date.
      */
     @GetMapping("/{id}")
-    public String getById(Model model, @PathVariable Long id) {
-        model.addAttribute("student", studentService.getById(id));
+    public String getById(Model model, @PathVariable Long id, WebRequest request) {
+        if (notModified(request, id)) {
+            return null;
+        }
+        model.addAttribute("student", studentService.getWithCoursesById(id));
         return "students/info";
     }
 
@@ -100,6 +167,19 @@ public class StudentController {
         return "redirect:/student/";
     }
 
+    /**
+     * Deletes the selected students together with their enrollments.
+     * @param ids The IDs of the students to be deleted.
+     * @return Redirects to the list of students after deletion.
+     */
+    @PostMapping("/delete")
+    public String deleteSelected(@RequestParam(required = false) List<Long> ids) {
+        if (ids != null) {
+            studentService.deleteAllById(ids);
+        }
+        return "redirect:/student/";
+    }
+
     /**
      * Displays a form for updating student information.
      * @param id The ID of the student to be updated.
@@ -115,69 +195,135 @@ public class StudentController {
 
     /**
      * Displays information about a specific student.
+     * Answers 304 Not Modified after a version lookup if the client's copy is up to date.
      * @param id The ID of the student to retrieve information for.
-     * @return The view template for displaying student information.
+     * @param request The current request, checked for a matching If-None-Match header.
+     * @return The view template for displaying student information, or null if the client's copy is up to date.
      */
     @GetMapping("/info/{id}")
-    public ModelAndView infoStudent(@PathVariable Long id) {
+    public ModelAndView infoStudent(@PathVariable Long id, WebRequest request) {
+        if (notModified(request, id)) {
+            return null;
+        }
         ModelAndView mv = new ModelAndView();
         mv.setViewName("students/info");
-        mv.addObject("student", studentService.getById(id));
+        mv.addObject("student", studentService.getWithCoursesById(id));
         return mv;
     }
 
     /**
-     * Drops a course from a student's list of enrolled courses.
+     * Drops a course from a student's list of enrolled courses and frees the seat.
      * @param studentId The ID of the student.
      * @param courseId The ID of the course to be dropped.
      * @return Redirects to the student's information page after dropping the course.
      */
     @GetMapping("/drop/{studentId}/course/{courseId}")
     public String dropCourseFromStudent(@PathVariable Long studentId, @PathVariable Long courseId) {
-        // Retrieve student and course from the database
-        Student student = studentService.getById(studentId);
-        Course course = courseService.getById(courseId);
-
-        // Remove course from student's courses property
-        student.getCourses().removeIf(c -> c.getId().equals(courseId));
-        studentService.save(student);
-
-        // Decrement numberOfStudents property of the course
-        course.setNumberOfStudents(course.getNumberOfStudents() - 1);
-        courseService.save(course);
+        // Remove the enrollment and free the seat in one transaction
+        enrollmentService.drop(studentId, courseId);
         return "redirect:/student/info/{studentId}";
     }
 
     /**
-     * Searches for students by name.
-     * @param name The name to search for.
+     * Searches for students by name, surname and major, one page at a time.
+     * Results come from the in-memory search index, best match first.
+     * @param name The search query.
+     * @param offset The number of results to skip, or null for the first page.
+     * @param size The requested page size, or null for the default.
      * @param model Model to be populated with search results.
-     * @return The view template for displaying search results.
+     * @return The view template for displaying search results, or a redirect to the list for an empty query.
      */
     @GetMapping("/search")
-    public String searchStudentByName(@RequestParam String name, Model model) {
-        List<Student> students=studentService.list();
-        if (name != null && !name.isEmpty()) {
-            students = studentService.findByNameIgnoreCase(name);
+    public String searchStudentByName(@RequestParam String name,
+                                      @RequestParam(required = false) Integer offset,
+                                      @RequestParam(required = false) Integer size,
+                                      Model model) {
+        if (name == null || name.isBlank()) {
+            return "redirect:/student/";
+        }
+        SearchPage<Student> page = studentService.search(name, offset, size);
+        model.addAttribute("students", page.getContent());
+        model.addAttribute("totalHits", page.getTotal());
+        if (page.isHasNext()) {
+            model.addAttribute("nextPageUrl", nextPageUrl(Map.of("offset", page.getOffset() + page.getSize())));
         }
-        model.addAttribute("students", students);
-        return "students/index"; // Replace with your actual Thymeleaf template name
+        return "students/index";
     }
 
     /**
-     * Sorts students based on the specified property.
+     * Sorts students based on the specified property, one page at a time.
+     * The direction is carried by the request, so concurrent users never affect each other's order.
      * @param property The property by which to sort the students.
+     * @param dir The sort direction, "asc" (default) or "desc".
+     * @param afterKey The property value of the last student on the previous page.
+     * @param afterNull Whether the property value of the last student on the previous page was null.
+     * @param after The ID of the last student on the previous page.
+     * @param size The requested page size, or null for the default.
      * @param model Model to be populated with sorted student data.
      * @return The view template for displaying sorted students.
      */
     @GetMapping("/sort/{property}")
-    public String sortStudents(@PathVariable String property, Model model) {
-        List<Student>students=studentService.sortStudentByProperty(isAsc,property);
-        isAsc=!isAsc;
-        model.addAttribute("students", students);
+    public String sortStudents(@PathVariable String property,
+                               @RequestParam(defaultValue = "asc") String dir,
+                               @RequestParam(required = false) String afterKey,
+                               @RequestParam(defaultValue = "false") boolean afterNull,
+                               @RequestParam(required = false) Long after,
+                               @RequestParam(required = false) Integer size,
+                               Model model) {
+        Sort.Direction direction = Sort.Direction.fromOptionalString(dir).orElse(Sort.Direction.ASC);
+        addPage(model, studentService.sortStudentByProperty(direction, property, afterKey, afterNull, after, size));
+        model.addAttribute("sortProperty", property);
+        model.addAttribute("sortDir", direction.isAscending() ? "asc" : "desc");
         return "students/index";
     }
-}
 
+    /**
+     * Checks the student detail page against the client's copy and sets its entity tag.
+     * Unknown students are left to the regular page handling.
+     * @param request The current request.
+     * @param id The ID of the student.
+     * @return true if the response has been set to 304 Not Modified.
+     */
+    private boolean notModified(WebRequest request, Long id) {
+        return studentService.getInfoETag(id)
+                .map(request::checkNotModified)
+                .orElse(false);
+    }
 
+    /**
+     * Adds a page of students and the link to the following page to the model.
+     * The link keeps the query parameters of the current request and only moves the cursor.
+     * @param model Model to be populated.
+     * @param page The page of students to display.
+     */
+    private void addPage(Model model, KeysetPage<Student> page) {
+        model.addAttribute("students", page.getContent());
+        model.addAttribute("page", page);
+        if (page.isHasNext()) {
+            Map<String, Object> cursor = new LinkedHashMap<>();
+            cursor.put("after", page.getNextId());
+            cursor.put("afterKey", page.getNextKey());
+            cursor.put("afterNull", page.isNextKeyNull() ? true : null);
+            model.addAttribute("nextPageUrl", nextPageUrl(cursor));
+        }
+    }
 
+    /**
+     * Builds the URL of the following page: the current request with its cursor parameters replaced.
+     * @param cursor The cursor parameters of the following page; null values remove the parameter.
+     * @return The URL of the following page.
+     */
+    private String nextPageUrl(Map<String, Object> cursor) {
+        HttpServletRequest request = ((ServletRequestAttributes) RequestContextHolder.currentRequestAttributes()).getRequest();
+        UriComponentsBuilder next = ServletUriComponentsBuilder.fromCurrentRequestUri();
+        request.getParameterMap().forEach((name, values) -> next.queryParam(name, (Object[]) values));
+        cursor.forEach((name, value) -> {
+            if (value == null) {
+                next.replaceQueryParam(name);
+            } else {
+                next.replaceQueryParam(name, value);
+            }
+        });
+        return next.toUriString();
+    }
+}
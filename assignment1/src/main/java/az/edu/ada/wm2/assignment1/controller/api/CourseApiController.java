@@ -0,0 +1,67 @@
+package az.edu.ada.wm2.assignment1.controller.api;
+
+import az.edu.ada.wm2.assignment1.dto.CourseSummary;
+import az.edu.ada.wm2.assignment1.dto.KeysetPage;
+import az.edu.ada.wm2.assignment1.dto.StudentSummary;
+import az.edu.ada.wm2.assignment1.service.impl.CourseService;
+import az.edu.ada.wm2.assignment1.service.impl.StudentService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller exposing courses and their enrolled students as JSON under /api/v1/courses.
+ * Responses are built from projections that select only the returned columns, never from entities,
+ * and list endpoints are keyset paginated.
+ */
+@RestController
+@RequestMapping("/api/v1/courses")
+public class CourseApiController {
+    CourseService courseService;
+    StudentService studentService;
+
+    /**
+     * Constructor for CourseApiController.
+     * @param courseService The service for managing courses.
+     * @param studentService The service for managing students.
+     */
+    public CourseApiController(CourseService courseService, StudentService studentService) {
+        this.courseService = courseService;
+        this.studentService = studentService;
+    }
+
+    /**
+     * Lists one page of courses ordered by ID.
+     * @param after The ID of the last course on the previous page, or null for the first page.
+     * @param size The page size, or null for the default.
+     * @return The page of courses.
+     */
+    @GetMapping
+    public KeysetPage<CourseSummary> list(@RequestParam(required = false) Long after,
+                                          @RequestParam(required = false) Integer size) {
+        return courseService.listSummaries(after, size);
+    }
+
+    /**
+     * Retrieves a single course.
+     * @param id The ID of the course.
+     * @return The course, or 404 if not found.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<CourseSummary> get(@PathVariable Long id) {
+        return ResponseEntity.of(courseService.getSummary(id));
+    }
+
+    /**
+     * Lists one page of the students enrolled in a course, ordered by ID.
+     * @param id The ID of the course.
+     * @param after The ID of the last student on the previous page, or null for the first page.
+     * @param size The page size, or null for the default.
+     * @return The page of enrolled students.
+     */
+    @GetMapping("/{id}/students")
+    public KeysetPage<StudentSummary> students(@PathVariable Long id,
+                                               @RequestParam(required = false) Long after,
+                                               @RequestParam(required = false) Integer size) {
+        return studentService.listSummariesByCourse(id, after, size);
+    }
+}
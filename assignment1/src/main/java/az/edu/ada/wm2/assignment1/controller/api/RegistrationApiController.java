@@ -0,0 +1,56 @@
+package az.edu.ada.wm2.assignment1.controller.api;
+
+import az.edu.ada.wm2.assignment1.dto.RegistrationTicket;
+import az.edu.ada.wm2.assignment1.service.impl.RegistrationQueue;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+/**
+ * REST controller exposing the registration queue as JSON under /api/v1/registrations.
+ * Enrollment requests are accepted with a ticket and applied in group-committed batches;
+ * clients poll the ticket for the outcome.
+ */
+@RestController
+@RequestMapping("/api/v1/registrations")
+public class RegistrationApiController {
+    RegistrationQueue registrationQueue;
+
+    /**
+     * Constructor for RegistrationApiController.
+     * @param registrationQueue The queue of enrollment requests.
+     */
+    public RegistrationApiController(RegistrationQueue registrationQueue) {
+        this.registrationQueue = registrationQueue;
+    }
+
+    /**
+     * Queues an enrollment request.
+     * @param studentId The ID of the student.
+     * @param courseId The ID of the course.
+     * @return 202 with the ticket and its URL in the Location header, or 503 with Retry-After if the queue is full.
+     */
+    @PostMapping
+    public ResponseEntity<RegistrationTicket> submit(@RequestParam Long studentId, @RequestParam Long courseId) {
+        return registrationQueue.submit(studentId, courseId)
+                .map(ticket -> ResponseEntity.accepted()
+                        .location(ServletUriComponentsBuilder.fromCurrentRequestUri()
+                                .path("/{id}").buildAndExpand(ticket.id()).toUri())
+                        .body(ticket))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                        .header(HttpHeaders.RETRY_AFTER, "1")
+                        .build());
+    }
+
+    /**
+     * Retrieves the state of a ticket.
+     * @param id The ID of the ticket.
+     * @return The ticket, or 404 if it is unknown or has expired.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<RegistrationTicket> get(@PathVariable String id) {
+        return ResponseEntity.of(registrationQueue.find(id));
+    }
+}
@@ -0,0 +1,100 @@
+package az.edu.ada.wm2.assignment1.controller.api;
+
+import az.edu.ada.wm2.assignment1.dto.EnrollmentSummary;
+import az.edu.ada.wm2.assignment1.dto.KeysetPage;
+import az.edu.ada.wm2.assignment1.dto.StudentSummary;
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentService;
+import az.edu.ada.wm2.assignment1.service.impl.StudentService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller exposing students and their enrollments as JSON under /api/v1/students.
+ * Responses are built from projections that select only the returned columns, never from entities,
+ * and list endpoints are keyset paginated with the same after/size parameters as the HTML pages.
+ */
+@RestController
+@RequestMapping("/api/v1/students")
+public class StudentApiController {
+    StudentService studentService;
+    EnrollmentService enrollmentService;
+
+    /**
+     * Constructor for StudentApiController.
+     * @param studentService The service for managing students.
+     * @param enrollmentService The service for enrolling students in courses.
+     */
+    public StudentApiController(StudentService studentService, EnrollmentService enrollmentService) {
+        this.studentService = studentService;
+        this.enrollmentService = enrollmentService;
+    }
+
+    /**
+     * Lists one page of students ordered by ID.
+     * @param after The ID of the last student on the previous page, or null for the first page.
+     * @param size The page size, or null for the default.
+     * @return The page of students.
+     */
+    @GetMapping
+    public KeysetPage<StudentSummary> list(@RequestParam(required = false) Long after,
+                                           @RequestParam(required = false) Integer size) {
+        return studentService.listSummaries(after, size);
+    }
+
+    /**
+     * Retrieves a single student.
+     * @param id The ID of the student.
+     * @return The student, or 404 if not found.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<StudentSummary> get(@PathVariable Long id) {
+        return ResponseEntity.of(studentService.getSummary(id));
+    }
+
+    /**
+     * Lists one page of a student's enrollments ordered by course ID.
+     * @param id The ID of the student.
+     * @param after The ID of the last course on the previous page, or null for the first page.
+     * @param size The page size, or null for the default.
+     * @return The page of enrollments.
+     */
+    @GetMapping("/{id}/enrollments")
+    public KeysetPage<EnrollmentSummary> enrollments(@PathVariable Long id,
+                                                     @RequestParam(required = false) Long after,
+                                                     @RequestParam(required = false) Integer size) {
+        return studentService.listEnrollments(id, after, size);
+    }
+
+    /**
+     * Enrolls a student in a course.
+     * @param id The ID of the student.
+     * @param courseId The ID of the course.
+     * @return 201 if enrolled, 200 if the student already takes the course, 409 if the course is full,
+     *         404 if the course or the student does not exist.
+     */
+    @PutMapping("/{id}/enrollments/{courseId}")
+    public ResponseEntity<EnrollmentService.Result> enroll(@PathVariable Long id, @PathVariable Long courseId) {
+        EnrollmentService.Result result = enrollmentService.enroll(id, courseId);
+        HttpStatus status = switch (result) {
+            case ENROLLED -> HttpStatus.CREATED;
+            case ALREADY_ENROLLED -> HttpStatus.OK;
+            case COURSE_FULL -> HttpStatus.CONFLICT;
+            case COURSE_NOT_FOUND, STUDENT_NOT_FOUND -> HttpStatus.NOT_FOUND;
+        };
+        return ResponseEntity.status(status).body(result);
+    }
+
+    /**
+     * Drops a course from a student's enrollments.
+     * @param id The ID of the student.
+     * @param courseId The ID of the course.
+     * @return 204 if dropped, 404 if the student did not take the course.
+     */
+    @DeleteMapping("/{id}/enrollments/{courseId}")
+    public ResponseEntity<Void> drop(@PathVariable Long id, @PathVariable Long courseId) {
+        return enrollmentService.drop(id, courseId)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
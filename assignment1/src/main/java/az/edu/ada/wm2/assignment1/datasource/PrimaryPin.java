@@ -0,0 +1,64 @@
+/**
+ * Per-thread state of the request being handled, telling ReadWriteRoutingDataSource to keep read-only
+ * transactions on the primary. A request is pinned when its client wrote recently, so it reads its own writes
+ * while the replica has not caught up with them, and it pins itself once it has written.
+ * Threads outside of a request, such as the registration worker, never carry a pin.
+ */
+package az.edu.ada.wm2.assignment1.datasource;
+
+public final class PrimaryPin {
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private static final class State {
+        private boolean pinned;
+        private boolean wrote;
+    }
+
+    private PrimaryPin() {
+    }
+
+    /**
+     * Starts tracking a request on the current thread.
+     * @param pinned Whether the request's client wrote recently, so its reads must go to the primary.
+     */
+    public static void begin(boolean pinned) {
+        State state = new State();
+        state.pinned = pinned;
+        CURRENT.set(state);
+    }
+
+    /**
+     * Stops tracking the request on the current thread.
+     */
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Records that the current request opened a read-write transaction on the primary, and pins the rest of it.
+     */
+    static void markWrite() {
+        State state = CURRENT.get();
+        if (state != null) {
+            state.wrote = true;
+            state.pinned = true;
+        }
+    }
+
+    /**
+     * @return true if read-only transactions of the current request must go to the primary.
+     */
+    public static boolean isPinned() {
+        State state = CURRENT.get();
+        return state != null && state.pinned;
+    }
+
+    /**
+     * @return true if the current request opened a read-write transaction.
+     */
+    public static boolean hasWritten() {
+        State state = CURRENT.get();
+        return state != null && state.wrote;
+    }
+}
@@ -0,0 +1,46 @@
+/**
+ * DataSource that sends read-only transactions to the read replica and everything else to the primary.
+ * The route is decided when a physical connection is requested, so the data source must sit behind a
+ * LazyConnectionDataSourceProxy: the transaction manager asks for a connection before it marks the transaction
+ * read-only, and the proxy defers the real request to the first statement. While the replica is too far behind,
+ * and for requests pinned by PrimaryPin because their client has just written, read-only transactions go to the
+ * primary as well.
+ */
+package az.edu.ada.wm2.assignment1.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.BooleanSupplier;
+
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    /**
+     * Lookup keys of the target data sources.
+     */
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final BooleanSupplier replicaUsable;
+
+    /**
+     * Constructor for ReadWriteRoutingDataSource.
+     * @param replicaUsable Tells whether the replica is currently fresh enough to serve reads.
+     */
+    public ReadWriteRoutingDataSource(BooleanSupplier replicaUsable) {
+        this.replicaUsable = replicaUsable;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                PrimaryPin.markWrite();
+            }
+            return Route.PRIMARY;
+        }
+        return !PrimaryPin.isPinned() && replicaUsable.getAsBoolean() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
@@ -0,0 +1,91 @@
+/**
+ * Web interceptor giving clients read-your-writes under the read/write split. A request that writes to the primary
+ * sends a cookie holding the time until which the client's reads stay on the primary; requests carrying an
+ * unexpired cookie are pinned to the primary through PrimaryPin. The window is the replica's maximum staleness:
+ * any snapshot the replica serves after it was taken after the write committed.
+ * <p>
+ * Writes are detected when a read-write transaction takes a primary connection, so the many GET links that
+ * write (take, drop, delete) are covered. The cookie is set before the view renders, which includes the redirect
+ * after a form post; requests with an unsafe method also get it up front, since their handler may commit
+ * the response (e.g. a JSON body) before the interceptor runs again.
+ */
+package az.edu.ada.wm2.assignment1.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+import org.springframework.web.util.WebUtils;
+
+import java.time.Duration;
+import java.util.Set;
+
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    /**
+     * Name of the cookie holding the epoch millisecond until which the client reads from the primary.
+     */
+    public static final String COOKIE = "primary-until";
+
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final Duration window;
+
+    /**
+     * Constructor for ReadYourWritesInterceptor.
+     * @param window How long a client reads from the primary after a write; the replica's maximum staleness.
+     */
+    public ReadYourWritesInterceptor(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        PrimaryPin.begin(pinnedUntil(request) > System.currentTimeMillis());
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            pin(response);
+        }
+        return true;
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        if (PrimaryPin.hasWritten() && !response.isCommitted()) {
+            pin(response);
+        }
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        PrimaryPin.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        PrimaryPin.end();
+    }
+
+    private void pin(HttpServletResponse response) {
+        Cookie cookie = new Cookie(COOKIE, Long.toString(System.currentTimeMillis() + window.toMillis()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) window.toSeconds() + 1);
+        response.addCookie(cookie);
+    }
+
+    private static long pinnedUntil(HttpServletRequest request) {
+        Cookie cookie = WebUtils.getCookie(request, COOKIE);
+        if (cookie == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cookie.getValue());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/**
+ * Hibernate JPA dialect that keeps the second-level and query caches usable under the read/write split.
+ * Read-only transactions served by the replica read and fill the caches as usual, so the course catalog is cached
+ * in this mode as well. Entries they put may lag the primary by up to one replication interval, like the replica
+ * itself: ReplicaSync evicts the catalog caches after every run that copied changes.
+ * All other transactions, i.e. writes and reads pinned to the primary, bypass cached entries and refresh them from
+ * the primary instead, so neither a write nor a client reading its own writes is served a lagging entry.
+ */
+package az.edu.ada.wm2.assignment1.datasource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+import java.util.function.BooleanSupplier;
+
+public class ReplicaReadJpaDialect extends HibernateJpaDialect {
+
+    private final BooleanSupplier replicaUsable;
+
+    /**
+     * Constructor for ReplicaReadJpaDialect.
+     * @param replicaUsable Tells whether the replica is currently fresh enough to serve reads.
+     */
+    public ReplicaReadJpaDialect(BooleanSupplier replicaUsable) {
+        this.replicaUsable = replicaUsable;
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        boolean replicaRead = definition.isReadOnly() && !PrimaryPin.isPinned() && replicaUsable.getAsBoolean();
+        if (!replicaRead) {
+            entityManager.unwrap(Session.class).setCacheMode(CacheMode.REFRESH);
+        }
+        return transactionData;
+    }
+}
@@ -0,0 +1,284 @@
+/**
+ * Simulated replication from the primary H2 database to the read replica, for running and testing the read/write
+ * split locally. Every lag interval the replica's changed tables are replaced by a consistent snapshot of the
+ * primary's, in one replica transaction, so replica readers always see a committed state of the primary that is
+ * at most about one lag old. The first run copies the schema and every table.
+ * <p>
+ * A table counts as changed when H2's modification counter of the table moved since the last copy; the counters are
+ * read before the snapshot is opened. A counter moves when a row is written, not when its transaction commits, so
+ * the counters are only remembered from runs during which no other session held uncommitted changes; otherwise
+ * the tables are compared with the counters of the last such run and copied again next time.
+ * <p>
+ * A changed table is copied whole: its replica rows are deleted and every row of the snapshot is inserted again.
+ * student_course changes with every enrollment, so during registration nearly every run rewrites it, and a run costs
+ * a scan of each changed table on the primary plus a delete and a re-insert of all its rows on the replica. That is
+ * only affordable for small local data sets, so a run refuses to copy a table of more than maxTableRows rows; the
+ * replica then goes stale and reads fall back to the primary. A replica of real data needs a real replication stream.
+ * <p>
+ * The catalog version is copied along with the data, so pages tagged from the replica carry the version of the
+ * data they were read from. After a run that copied anything, the afterChange callback evicts what replica readers
+ * may have cached from the previous snapshot.
+ * The replica counts as fresh while its last snapshot is younger than maxStaleness; a stopped or failing
+ * replication therefore sends all reads back to the primary instead of serving ever older data.
+ */
+package az.edu.ada.wm2.assignment1.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class ReplicaSync implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaSync.class);
+
+    /**
+     * Number of rows sent to the replica per JDBC batch.
+     */
+    private static final int BATCH_SIZE = 1000;
+
+    /**
+     * JDBC location of one of the two databases.
+     * @param url The JDBC URL.
+     * @param username The user name.
+     * @param password The password.
+     */
+    public record Endpoint(String url, String username, String password) {
+    }
+
+    private final Endpoint primary;
+    private final Endpoint replica;
+    private final Duration lag;
+    private final Duration maxStaleness;
+    private final long maxTableRows;
+    private final Runnable afterChange;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private boolean schemaCopied;
+    private Map<String, Long> copiedModifications = Map.of();
+    private volatile Instant snapshotTakenAt;
+
+    /**
+     * Constructor for ReplicaSync.
+     * @param primary The database written by the application.
+     * @param replica The database read-only transactions are routed to.
+     * @param lag The interval between two snapshots, i.e. the simulated replication lag.
+     * @param maxStaleness The age of the last snapshot beyond which the replica no longer serves reads.
+     * @param maxTableRows The largest table, in rows, a run copies; larger tables stop the replication.
+     * @param afterChange Called after every run that copied at least one table to the replica.
+     * @param meterRegistry The registry the replica lag gauge is recorded in.
+     */
+    public ReplicaSync(Endpoint primary, Endpoint replica, Duration lag, Duration maxStaleness, long maxTableRows,
+                       Runnable afterChange, MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lag = lag;
+        this.maxStaleness = maxStaleness;
+        this.maxTableRows = maxTableRows;
+        this.afterChange = afterChange;
+        Gauge.builder("app.replica.lag", this, sync -> sync.currentLag().toMillis() / 1000.0)
+                .description("Age of the primary snapshot the read replica holds")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts replicating: one snapshot on the calling thread, so the replica is primed before traffic arrives,
+     * then one every lag interval in the background.
+     */
+    public void start() {
+        syncQuietly();
+        scheduler.scheduleWithFixedDelay(this::syncQuietly, lag.toMillis(), lag.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Copies a snapshot of the primary's changed tables to the replica now.
+     * @return The number of tables copied.
+     * @throws SQLException if either database fails.
+     * @throws IllegalStateException if a changed table has more than maxTableRows rows; nothing is copied then.
+     */
+    public synchronized int syncNow() throws SQLException {
+        long start = System.nanoTime();
+        Instant takenAt = Instant.now();
+        int copiedTables = 0;
+        try (Connection source = open(primary); Connection target = open(replica)) {
+            // Read before the snapshot: a table whose counter has not moved since has nothing the replica lacks
+            Map<String, Long> modifications = modifications(source);
+            boolean settled = !hasUncommittedChanges(source);
+            try (Statement statement = source.createStatement()) {
+                statement.execute("SET SESSION CHARACTERISTICS AS TRANSACTION ISOLATION LEVEL SNAPSHOT");
+            }
+            source.setAutoCommit(false);
+            if (!schemaCopied) {
+                copySchema(source, target);
+                schemaCopied = true;
+            }
+            target.setAutoCommit(false);
+            List<String> changed = new ArrayList<>();
+            for (Map.Entry<String, Long> table : modifications.entrySet()) {
+                if (!Objects.equals(table.getValue(), copiedModifications.get(table.getKey()))) {
+                    checkSize(source, table.getKey());
+                    changed.add(table.getKey());
+                }
+            }
+            long rows = 0;
+            for (String table : changed) {
+                rows += copyTable(source, target, table);
+                copiedTables++;
+            }
+            target.commit();
+            source.commit();
+            if (settled) {
+                copiedModifications = modifications;
+            }
+            log.debug("Replicated {} rows of {} tables in {} ms", rows, copiedTables,
+                    (System.nanoTime() - start) / 1_000_000);
+        }
+        snapshotTakenAt = takenAt;
+        if (copiedTables > 0) {
+            afterChange.run();
+        }
+        return copiedTables;
+    }
+
+    private void syncQuietly() {
+        try {
+            syncNow();
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Replica sync failed; reads move to the primary once the replica is {} old", maxStaleness, e);
+        }
+    }
+
+    /**
+     * Tells whether the replica is fresh enough to serve reads.
+     * @return true if the replica holds a snapshot younger than maxStaleness.
+     */
+    public boolean isFresh() {
+        Instant takenAt = snapshotTakenAt;
+        return takenAt != null && Duration.between(takenAt, Instant.now()).compareTo(maxStaleness) <= 0;
+    }
+
+    /**
+     * Returns the age of the snapshot the replica holds.
+     * @return The replication lag, or the time since the epoch if the replica has never been synced.
+     */
+    public Duration currentLag() {
+        Instant takenAt = snapshotTakenAt;
+        return Duration.between(takenAt == null ? Instant.EPOCH : takenAt, Instant.now());
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Recreates the primary's tables, indexes and constraints on the replica.
+     * Referential integrity is switched off on the replica, since tables are replaced one after the other.
+     */
+    private static void copySchema(Connection source, Connection target) throws SQLException {
+        List<String> ddl = new ArrayList<>();
+        try (Statement statement = source.createStatement();
+             ResultSet script = statement.executeQuery("SCRIPT NODATA NOPASSWORDS NOSETTINGS")) {
+            while (script.next()) {
+                String line = script.getString(1);
+                if (!line.startsWith("--") && !line.startsWith("CREATE USER")) {
+                    ddl.add(line);
+                }
+            }
+        }
+        try (Statement statement = target.createStatement()) {
+            statement.execute("DROP ALL OBJECTS");
+            for (String line : ddl) {
+                statement.execute(line);
+            }
+            statement.execute("SET REFERENTIAL_INTEGRITY FALSE");
+        }
+    }
+
+    private static Map<String, Long> modifications(Connection source) throws SQLException {
+        Map<String, Long> modifications = new HashMap<>();
+        try (Statement statement = source.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT TABLE_NAME, LAST_MODIFICATION " +
+                     "FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = 'PUBLIC' AND TABLE_TYPE = 'BASE TABLE'")) {
+            while (rows.next()) {
+                modifications.put(rows.getString(1), rows.getLong(2));
+            }
+        }
+        return modifications;
+    }
+
+    private static boolean hasUncommittedChanges(Connection source) throws SQLException {
+        try (Statement statement = source.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT COUNT(*) FROM INFORMATION_SCHEMA.SESSIONS " +
+                     "WHERE CONTAINS_UNCOMMITTED AND SESSION_ID <> SESSION_ID()")) {
+            rows.next();
+            return rows.getLong(1) > 0;
+        }
+    }
+
+    /**
+     * Refuses a table too large to be copied whole every lag interval, before anything has been copied.
+     */
+    private void checkSize(Connection source, String table) throws SQLException {
+        try (Statement statement = source.createStatement();
+             ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM \"" + table + "\"")) {
+            count.next();
+            if (count.getLong(1) > maxTableRows) {
+                throw new IllegalStateException("Table " + table + " has " + count.getLong(1) + " rows, more than the "
+                        + maxTableRows + " the simulated replication copies; reads stay on the primary");
+            }
+        }
+    }
+
+    private static long copyTable(Connection source, Connection target, String table) throws SQLException {
+        String name = "\"" + table + "\"";
+        try (Statement delete = target.createStatement()) {
+            delete.executeUpdate("DELETE FROM " + name);
+        }
+        long copied = 0;
+        try (Statement select = source.createStatement();
+             ResultSet rows = select.executeQuery("SELECT * FROM " + name)) {
+            int columns = rows.getMetaData().getColumnCount();
+            try (PreparedStatement insert = target.prepareStatement(
+                    "INSERT INTO " + name + " VALUES (" + "?, ".repeat(columns - 1) + "?)")) {
+                while (rows.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        insert.setObject(i, rows.getObject(i));
+                    }
+                    insert.addBatch();
+                    if (++copied % BATCH_SIZE == 0) {
+                        insert.executeBatch();
+                    }
+                }
+                insert.executeBatch();
+            }
+        }
+        return copied;
+    }
+
+    private static Connection open(Endpoint endpoint) throws SQLException {
+        return DriverManager.getConnection(endpoint.url(), endpoint.username(), endpoint.password());
+    }
+}
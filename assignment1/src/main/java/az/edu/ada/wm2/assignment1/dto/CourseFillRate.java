@@ -0,0 +1,18 @@
+/**
+ * Read-only projection of a course's seat counter for the enrollment analytics.
+ * @param id The ID of the course.
+ * @param courseName The name of the course.
+ * @param numberOfStudents The number of students enrolled in the course.
+ * @param capacity The maximum number of students that can enroll in the course.
+ */
+package az.edu.ada.wm2.assignment1.dto;
+
+public record CourseFillRate(Long id, String courseName, int numberOfStudents, int capacity) {
+
+    /**
+     * @return The share of the course's seats that are taken, between 0 and 1; 0 for a course without seats.
+     */
+    public double fillRate() {
+        return capacity <= 0 ? 0 : (double) numberOfStudents / capacity;
+    }
+}
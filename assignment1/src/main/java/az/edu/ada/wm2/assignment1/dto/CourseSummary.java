@@ -0,0 +1,44 @@
+/**
+ * Read-only projection of a course row for the course catalog and the JSON API.
+ * Only the listed columns are selected and the enrollment count comes with the row,
+ * so rendering or serializing a course never touches its enrollments.
+ */
+package az.edu.ada.wm2.assignment1.dto;
+
+public interface CourseSummary {
+
+    /**
+     * @return The unique identifier of the course.
+     */
+    Long getId();
+
+    /**
+     * @return The name of the course.
+     */
+    String getCourseName();
+
+    /**
+     * @return The name of the teacher or instructor for the course.
+     */
+    String getTeacherName();
+
+    /**
+     * @return The description of the course.
+     */
+    String getCourseDescription();
+
+    /**
+     * @return The credit value associated with the course.
+     */
+    Integer getCredit();
+
+    /**
+     * @return The maximum number of students that can enroll in the course.
+     */
+    Integer getCapacity();
+
+    /**
+     * @return The number of students enrolled in the course.
+     */
+    Long getNumberOfStudents();
+}
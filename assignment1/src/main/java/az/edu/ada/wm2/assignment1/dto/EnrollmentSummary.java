@@ -0,0 +1,13 @@
+/**
+ * Read-only projection of one enrollment of a student for the JSON API: the course and when it was taken.
+ * @param courseId The ID of the course.
+ * @param courseName The name of the course.
+ * @param credit The credit value of the course.
+ * @param enrolledAt The time the student enrolled in the course.
+ */
+package az.edu.ada.wm2.assignment1.dto;
+
+import java.time.LocalDateTime;
+
+public record EnrollmentSummary(Long courseId, String courseName, Integer credit, LocalDateTime enrolledAt) {
+}
@@ -0,0 +1,94 @@
+/**
+ * Summary of a CSV bulk import: how many rows were read and imported, which rows were rejected and why,
+ * and how fast the import ran.
+ */
+package az.edu.ada.wm2.assignment1.dto;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class ImportReport {
+
+    /**
+     * Maximum number of row errors kept in the report; further errors are only counted.
+     */
+    public static final int MAX_REPORTED_ERRORS = 100;
+
+    /**
+     * What was imported, e.g. "students" or "courses".
+     */
+    private final String kind;
+
+    /**
+     * The number of data rows read from the file, excluding the header.
+     */
+    private long rowsRead;
+
+    /**
+     * The number of rows persisted.
+     */
+    private long imported;
+
+    /**
+     * The number of rows rejected.
+     */
+    private long errorCount;
+
+    /**
+     * The first MAX_REPORTED_ERRORS row errors, each prefixed with its line number.
+     */
+    private final List<String> errors = new ArrayList<>();
+
+    /**
+     * The wall-clock duration of the import in milliseconds.
+     */
+    private long elapsedMillis;
+
+    public ImportReport(String kind) {
+        this.kind = kind;
+    }
+
+    /**
+     * Records a data row that was read.
+     */
+    public void rowRead() {
+        rowsRead++;
+    }
+
+    /**
+     * Records a row that was persisted.
+     */
+    public void rowImported() {
+        imported++;
+    }
+
+    /**
+     * Records a rejected row.
+     * @param lineNumber The 1-based line number in the file.
+     * @param message Why the row was rejected.
+     */
+    public void rowFailed(long lineNumber, String message) {
+        errorCount++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add("line " + lineNumber + ": " + message);
+        }
+    }
+
+    /**
+     * Records the end of the import.
+     * @param elapsedMillis The wall-clock duration of the import in milliseconds.
+     */
+    public void finished(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * @return The throughput of the import in rows read per second.
+     */
+    public long getRowsPerSecond() {
+        return elapsedMillis == 0 ? rowsRead : rowsRead * 1000 / elapsedMillis;
+    }
+}
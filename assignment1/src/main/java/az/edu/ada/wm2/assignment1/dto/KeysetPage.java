@@ -0,0 +1,92 @@
+/**
+ * A single page of a keyset (seek) paginated listing.
+ * Instead of an offset, the next page is addressed by the sort key and ID of the last row on this page,
+ * so every page is a bounded index range scan no matter how deep the client pages.
+ * @param <T> The type of the rows on the page.
+ */
+package az.edu.ada.wm2.assignment1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Getter
+@AllArgsConstructor
+public class KeysetPage<T> {
+
+    /**
+     * Page size used when the client does not ask for one.
+     */
+    public static final int DEFAULT_SIZE = 20;
+
+    /**
+     * Largest page size a client may request.
+     */
+    public static final int MAX_SIZE = 100;
+
+    /**
+     * The rows on this page.
+     */
+    private final List<T> content;
+
+    /**
+     * The requested page size.
+     */
+    private final int size;
+
+    /**
+     * Whether there is at least one more row after this page.
+     */
+    private final boolean hasNext;
+
+    /**
+     * The ID of the last row on this page, used as the cursor of the next page.
+     */
+    private final Long nextId;
+
+    /**
+     * The sort key of the last row on this page, or null if the listing is ordered by ID only or the key is null.
+     */
+    private final String nextKey;
+
+    /**
+     * Whether the listing is ordered by a sort key and the key of the last row on this page is null.
+     * The cursor of the next page then carries this flag instead of a key, so it still addresses the position among
+     * the rows with a null key rather than falling back to the first page.
+     */
+    private final boolean nextKeyNull;
+
+    /**
+     * Clamps a requested page size into the range [1, MAX_SIZE].
+     * @param size The requested page size, may be null.
+     * @return The page size to use.
+     */
+    public static int clampSize(Integer size) {
+        if (size == null || size < 1) {
+            return DEFAULT_SIZE;
+        }
+        return Math.min(size, MAX_SIZE);
+    }
+
+    /**
+     * Builds a page from rows that were fetched with a limit of size + 1.
+     * The extra row, if present, only signals that a next page exists and is dropped.
+     * @param rows The fetched rows, at most size + 1.
+     * @param size The page size.
+     * @param idOf Extracts the ID of a row.
+     * @param keyOf Extracts the sort key of a row, or null if the listing is ordered by ID only.
+     * @return The page.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, Long> idOf, Function<T, String> keyOf) {
+        boolean hasNext = rows.size() > size;
+        List<T> content = hasNext ? rows.subList(0, size) : rows;
+        if (content.isEmpty()) {
+            return new KeysetPage<>(content, size, false, null, null, false);
+        }
+        T last = content.get(content.size() - 1);
+        String nextKey = keyOf == null ? null : keyOf.apply(last);
+        return new KeysetPage<>(content, size, hasNext, idOf.apply(last), nextKey, keyOf != null && nextKey == null);
+    }
+}
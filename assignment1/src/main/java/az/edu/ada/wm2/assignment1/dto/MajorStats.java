@@ -0,0 +1,47 @@
+/**
+ * Read-only projection of the enrollment totals of one major: its number of students and the courses and
+ * credits they are enrolled in, summed over the major's stripes in major_stats for the enrollment analytics.
+ */
+package az.edu.ada.wm2.assignment1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class MajorStats {
+
+    /**
+     * The major the totals belong to.
+     */
+    private String major;
+
+    /**
+     * The number of students of the major.
+     */
+    private long students;
+
+    /**
+     * The number of enrollments of the major's students.
+     */
+    private long enrolledCourses;
+
+    /**
+     * The total credits of the courses the major's students are enrolled in.
+     */
+    private long enrolledCredits;
+
+    /**
+     * @return The average number of courses a student of the major takes, or 0 if the major has no students.
+     */
+    public double getAverageCourses() {
+        return students == 0 ? 0 : (double) enrolledCourses / students;
+    }
+
+    /**
+     * @return The average credit load of a student of the major, or 0 if the major has no students.
+     */
+    public double getAverageCredits() {
+        return students == 0 ? 0 : (double) enrolledCredits / students;
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * Ticket of an enrollment request accepted by the registration queue, which the client polls for the outcome.
+ * @param id The unguessable ID of the ticket.
+ * @param studentId The ID of the student.
+ * @param courseId The ID of the course.
+ * @param status The outcome of the request, QUEUED until its batch has been applied.
+ * @param submittedAt The time the request was accepted.
+ */
+package az.edu.ada.wm2.assignment1.dto;
+
+import java.time.Instant;
+
+public record RegistrationTicket(String id, Long studentId, Long courseId, Status status, Instant submittedAt) {
+
+    /**
+     * State of a queued enrollment request.
+     */
+    public enum Status {
+        QUEUED,
+        ENROLLED,
+        ALREADY_ENROLLED,
+        COURSE_FULL,
+        COURSE_NOT_FOUND,
+        STUDENT_NOT_FOUND,
+        FAILED
+    }
+
+    /**
+     * @param status The new status.
+     * @return A copy of this ticket with the given status.
+     */
+    public RegistrationTicket withStatus(Status status) {
+        return new RegistrationTicket(id, studentId, courseId, status, submittedAt);
+    }
+
+    /**
+     * @return true once the request has been applied or has failed.
+     */
+    public boolean isDone() {
+        return status != Status.QUEUED;
+    }
+}
@@ -0,0 +1,42 @@
+/**
+ * A single page of ranked search results, addressed by offset into the ranking.
+ * @param <T> The type of the results on the page.
+ */
+package az.edu.ada.wm2.assignment1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class SearchPage<T> {
+
+    /**
+     * The results on this page, best match first.
+     */
+    private final List<T> content;
+
+    /**
+     * The number of results skipped before this page.
+     */
+    private final int offset;
+
+    /**
+     * The requested page size.
+     */
+    private final int size;
+
+    /**
+     * The total number of results matching the query.
+     */
+    private final int total;
+
+    /**
+     * @return Whether there are more results after this page.
+     */
+    public boolean isHasNext() {
+        return offset + size < total;
+    }
+}
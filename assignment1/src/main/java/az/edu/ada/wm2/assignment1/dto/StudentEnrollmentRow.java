@@ -0,0 +1,27 @@
+/**
+ * One row of the student export: a student joined with one of their courses.
+ * Students without enrollments produce a single row with null course columns.
+ * Rows are plain values rather than entities, so streaming them never fills the persistence context.
+ */
+package az.edu.ada.wm2.assignment1.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class StudentEnrollmentRow {
+
+    private final Long studentId;
+    private final String name;
+    private final String surname;
+    private final String major;
+    private final LocalDate dateOfBirth;
+    private final Long courseId;
+    private final String courseName;
+    private final Integer credit;
+    private final LocalDateTime enrolledAt;
+}
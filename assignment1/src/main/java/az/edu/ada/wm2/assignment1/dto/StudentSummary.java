@@ -0,0 +1,15 @@
+/**
+ * Read-only projection of a student row for the JSON API.
+ * Selected with a constructor expression, so only these columns are read and no entity is managed.
+ * @param id The unique identifier of the student.
+ * @param name The name of the student.
+ * @param surname The surname of the student.
+ * @param major The major or field of study of the student.
+ * @param dateOfBirth The date of birth of the student.
+ */
+package az.edu.ada.wm2.assignment1.dto;
+
+import java.time.LocalDate;
+
+public record StudentSummary(Long id, String name, String surname, String major, LocalDate dateOfBirth) {
+}
@@ -0,0 +1,36 @@
+/**
+ * Model class holding the version of the course catalog in its only row, so every instance of the application
+ * sharing the database tags pages with the same version. The epoch is drawn once when the row is created;
+ * the revision is raised by CatalogVersion after every committed catalog change.
+ */
+package az.edu.ada.wm2.assignment1.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "CATALOG_REVISION")
+public class CatalogRevision {
+
+    /**
+     * The ID of the only row, always 1.
+     */
+    @Id
+    private Integer id;
+
+    /**
+     * Random value identifying the database, so tags issued against an earlier in-memory database never match.
+     */
+    @Column(name = "epoch", nullable = false)
+    private String epoch;
+
+    /**
+     * The number of catalog changes since the row was created.
+     */
+    @Column(name = "revision", columnDefinition = "bigint default 0 not null")
+    private long revision;
+}
@@ -1,28 +1,45 @@
 /**
  * Model class representing a course.
- * Contains attributes such as ID, course name, teacher name, course description, number of students, credit, and enrolled students.
+ * Contains attributes such as ID, course name, teacher name, course description, number of students, capacity, and credit.
  * Utilizes Lombok annotations for generating getters, setters, constructors, and default values.
+ * Courses change rarely and are read on almost every page, so they live in the second-level cache.
+ * The version is raised by every change of the row, including the seat counter updates of EnrollmentService.
  */
 package az.edu.ada.wm2.assignment1.model;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Min;
 import lombok.*;
-
-import java.util.List;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Course.CACHE_REGION)
 @Table(name = "COURSES")
 public class Course {
 
+    /**
+     * Second-level cache region holding courses.
+     */
+    public static final String CACHE_REGION = "courses";
+
+    /**
+     * Query cache region holding the course catalog.
+     */
+    public static final String CATALOG_QUERY_REGION = "course-catalog";
+
     /**
      * The unique identifier for the course.
+     * Drawn from a pooled sequence so Hibernate can batch inserts and fetch 50 IDs per round trip.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "courses_seq")
+    @SequenceGenerator(name = "courses_seq", sequenceName = "courses_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -50,16 +67,24 @@ public class Course {
     @Column(name = "number_of_students", columnDefinition = "int default 0")
     private int numberOfStudents=0;
 
+    /**
+     * The maximum number of students that can enroll in the course.
+     * Default value set to 30; a course has at least one seat.
+     */
+    @Min(1)
+    @Column(name = "capacity", columnDefinition = "int default 30")
+    private int capacity=30;
+
     /**
      * The credit value associated with the course.
      */
     private int credit;
 
     /**
-     * The list of students enrolled in the course.
-     * Represents a many-to-many relationship with the Student entity.
+     * The version of the course, raised on every update; used for optimistic locking.
+     * Rows written by plain SQL start at 0.
      */
-    @ManyToMany(mappedBy = "courses")
-    private List<Student> students;
-
-}
\ No newline at end of file
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0 not null")
+    private Long version;
+}
@@ -0,0 +1,55 @@
+/**
+ * Model class representing the enrollment of a student in a course.
+ * Mapped to the student_course table with a (student_id, course_id) primary key, so enrolling and dropping
+ * insert or delete exactly one row instead of rewriting a student's whole course list.
+ * Both foreign keys are indexed for the lookups from either side.
+ * Utilizes Lombok annotations for generating getters, setters and constructors.
+ */
+package az.edu.ada.wm2.assignment1.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "student_course", indexes = {
+        @Index(name = "idx_student_course_student_id", columnList = "student_id"),
+        @Index(name = "idx_student_course_course_id", columnList = "course_id")
+})
+public class Enrollment {
+
+    /**
+     * The composite identifier made of the student and course IDs.
+     */
+    @EmbeddedId
+    private EnrollmentId id;
+
+    /**
+     * The enrolled student.
+     */
+    @MapsId("studentId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "student_id")
+    private Student student;
+
+    /**
+     * The course the student is enrolled in.
+     */
+    @MapsId("courseId")
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id")
+    private Course course;
+
+    /**
+     * The time the student enrolled in the course.
+     * Filled in by the database when the row is inserted.
+     */
+    @Column(name = "enrolled_at", columnDefinition = "timestamp default current_timestamp not null",
+            insertable = false, updatable = false)
+    private LocalDateTime enrolledAt;
+}
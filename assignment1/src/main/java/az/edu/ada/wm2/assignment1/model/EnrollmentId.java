@@ -0,0 +1,34 @@
+/**
+ * Composite primary key of an enrollment: the pair of student and course IDs.
+ * Utilizes Lombok annotations for generating getters, constructors, equals and hashCode.
+ */
+package az.edu.ada.wm2.assignment1.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Embeddable
+public class EnrollmentId implements Serializable {
+
+    /**
+     * The ID of the enrolled student.
+     */
+    @Column(name = "student_id")
+    private Long studentId;
+
+    /**
+     * The ID of the course the student is enrolled in.
+     */
+    @Column(name = "course_id")
+    private Long courseId;
+}
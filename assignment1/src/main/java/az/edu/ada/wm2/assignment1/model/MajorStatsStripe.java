@@ -0,0 +1,49 @@
+/**
+ * Model class holding one stripe of the running enrollment totals of a major: the number of students whose ID
+ * falls into the stripe and the courses and credits they are enrolled in. A major's totals are the sum of its
+ * stripes. Every enrollment moves only the stripe of its student, so enrollments of one major's students
+ * spread over {@link #STRIPES} rows instead of queueing on a single counter row.
+ * Rows are maintained incrementally by EnrollmentAnalytics with set-based SQL.
+ */
+package az.edu.ada.wm2.assignment1.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "MAJOR_STATS")
+public class MajorStatsStripe {
+
+    /**
+     * The number of stripes per major.
+     */
+    public static final int STRIPES = 16;
+
+    /**
+     * The composite identifier made of the major and the stripe number.
+     */
+    @EmbeddedId
+    private MajorStatsStripeId id;
+
+    /**
+     * The number of students of the stripe.
+     */
+    @Column(name = "students", columnDefinition = "bigint default 0 not null")
+    private long students;
+
+    /**
+     * The number of enrollments of the stripe's students.
+     */
+    @Column(name = "enrolled_courses", columnDefinition = "bigint default 0 not null")
+    private long enrolledCourses;
+
+    /**
+     * The total credits of the courses the stripe's students are enrolled in.
+     */
+    @Column(name = "enrolled_credits", columnDefinition = "bigint default 0 not null")
+    private long enrolledCredits;
+}
@@ -0,0 +1,34 @@
+/**
+ * Composite primary key of a stripe of the major totals: the major and the stripe number.
+ * Utilizes Lombok annotations for generating getters, constructors, equals and hashCode.
+ */
+package az.edu.ada.wm2.assignment1.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+@Embeddable
+public class MajorStatsStripeId implements Serializable {
+
+    /**
+     * The major the totals belong to.
+     */
+    @Column(name = "major")
+    private String major;
+
+    /**
+     * The stripe number, the student ID modulo {@link MajorStatsStripe#STRIPES}.
+     */
+    @Column(name = "stripe")
+    private int stripe;
+}
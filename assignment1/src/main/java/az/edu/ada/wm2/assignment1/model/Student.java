@@ -1,7 +1,10 @@
 /**
  * Model class representing a student.
- * Contains attributes such as ID, name, surname, major, date of birth, and enrolled courses.
+ * Contains attributes such as ID, name, surname, major, date of birth, and enrollments.
  * Utilizes Lombok annotations for generating getters, setters, constructors, and builder methods.
+ * The (name, id), (surname, id) and (major, id) indexes serve the sorted, keyset-paginated student listing.
+ * The version is raised whenever the student's own fields change and identifies the state of the student detail page.
+ * The enrolled course and credit totals are running counters for the enrollment analytics.
  */
 package az.edu.ada.wm2.assignment1.model;
 
@@ -16,13 +19,19 @@ import java.util.List;
 @AllArgsConstructor
 @Entity
 @Builder
-@Table(name = "STUDENTS")
+@Table(name = "STUDENTS", indexes = {
+        @Index(name = "idx_students_name_id", columnList = "name, id"),
+        @Index(name = "idx_students_surname_id", columnList = "surname, id"),
+        @Index(name = "idx_students_major_id", columnList = "major, id")
+})
 public class Student {
     /**
      * The unique identifier for the student.
+     * Drawn from a pooled sequence so Hibernate can batch inserts and fetch 50 IDs per round trip.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "students_seq")
+    @SequenceGenerator(name = "students_seq", sequenceName = "students_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -47,14 +56,31 @@ public class Student {
     private LocalDate dateOfBirth;
 
     /**
-     * The list of courses in which the student is enrolled.
-     * Represents a many-to-many relationship with the Course entity.
+     * The enrollments of the student, each linking to one course.
+     * Mapped by Enrollment, so enrolling and dropping write single student_course rows through EnrollmentService.
      */
-    @ManyToMany
-    @JoinTable(
-            name = "student_course",
-            joinColumns = @JoinColumn(name = "student_id"),
-            inverseJoinColumns = @JoinColumn(name = "course_id")
-    )
-    private List<Course> courses;
-}
\ No newline at end of file
+    @OneToMany(mappedBy = "student")
+    private List<Enrollment> enrollments;
+
+    /**
+     * The number of courses the student is enrolled in.
+     * Maintained incrementally by EnrollmentAnalytics with set-based SQL and never written through the entity,
+     * so saving a student can not overwrite a concurrent enrollment's increment.
+     */
+    @Column(name = "enrolled_courses", columnDefinition = "int default 0 not null", insertable = false, updatable = false)
+    private int enrolledCourses;
+
+    /**
+     * The total credits of the courses the student is enrolled in, maintained like enrolledCourses.
+     */
+    @Column(name = "enrolled_credits", columnDefinition = "int default 0 not null", insertable = false, updatable = false)
+    private int enrolledCredits;
+
+    /**
+     * The version of the student, raised on every update; used for optimistic locking.
+     * Rows written by plain SQL start at 0.
+     */
+    @Version
+    @Column(name = "version", columnDefinition = "bigint default 0 not null")
+    private Long version;
+}
@@ -0,0 +1,77 @@
+/**
+ * JDBC listener that times every statement and logs a sample of the slow ones with their parameters.
+ * Replaces blanket SQL logging: only statements slower than the threshold are candidates, and of those only the
+ * configured fraction is written, so the log stays cheap under load while every slow statement is still counted.
+ */
+package az.edu.ada.wm2.assignment1.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.QueryType;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class SlowQueryLog implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryLog.class);
+
+    private final long thresholdMillis;
+    private final double sampleRate;
+    private final Map<QueryType, Timer> timers = new EnumMap<>(QueryType.class);
+    private final Counter slowQueries;
+
+    /**
+     * @param registry The registry the statement timers and the slow statement counter are registered in.
+     * @param threshold Statements taking at least this long are slow.
+     * @param sampleRate The fraction of slow statements that are logged, between 0 and 1.
+     */
+    public SlowQueryLog(MeterRegistry registry, Duration threshold, double sampleRate) {
+        this.thresholdMillis = threshold.toMillis();
+        this.sampleRate = sampleRate;
+        for (QueryType type : QueryType.values()) {
+            timers.put(type, Timer.builder("jdbc.statements")
+                    .description("Execution time of JDBC statements")
+                    .tag("type", type.name().toLowerCase(Locale.ROOT))
+                    .register(registry));
+        }
+        this.slowQueries = Counter.builder("jdbc.statements.slow")
+                .description("JDBC statements slower than the slow query threshold")
+                .register(registry);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        QueryType type = queryInfoList.isEmpty() ? QueryType.OTHER : QueryUtils.getQueryType(queryInfoList.get(0).getQuery());
+        timers.get(type).record(elapsed, TimeUnit.MILLISECONDS);
+        if (elapsed < thresholdMillis) {
+            return;
+        }
+        slowQueries.increment();
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        log.warn("Slow {} ({} ms{}, batch size {}): {} params {}", type.name().toLowerCase(Locale.ROOT), elapsed,
+                execInfo.isSuccess() ? "" : ", failed", execInfo.getBatchSize(),
+                queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")),
+                queryInfoList.stream().map(QueryInfo::getParametersList).toList());
+    }
+}
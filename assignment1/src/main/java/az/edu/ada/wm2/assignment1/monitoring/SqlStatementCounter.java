@@ -0,0 +1,119 @@
+/**
+ * JDBC listener counting the statements executed and the rows fetched on the current thread.
+ * Counting happens inside scopes: a web request, a test or any other unit of work opens a scope and reads its
+ * counts when closing it. Scopes nest, and every open scope of the thread sees every statement, so a test can
+ * count across the requests it makes while each request still gets its own numbers.
+ */
+package az.edu.ada.wm2.assignment1.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+
+public class SqlStatementCounter implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final ThreadLocal<Deque<Scope>> SCOPES = ThreadLocal.withInitial(ArrayDeque::new);
+
+    /**
+     * Statement and row counts of one unit of work on one thread.
+     */
+    public static final class Scope implements AutoCloseable {
+        private long statements;
+        private long rows;
+
+        private Scope() {
+        }
+
+        /**
+         * @return The number of JDBC statement executions so far; a JDBC batch counts as one round trip.
+         */
+        public long getStatements() {
+            return statements;
+        }
+
+        /**
+         * @return The number of result set rows fetched so far.
+         */
+        public long getRows() {
+            return rows;
+        }
+
+        /**
+         * Stops counting; the counts stay readable.
+         */
+        @Override
+        public void close() {
+            Deque<Scope> scopes = SCOPES.get();
+            scopes.remove(this);
+            if (scopes.isEmpty()) {
+                SCOPES.remove();
+            }
+        }
+    }
+
+    /**
+     * Opens a counting scope on the current thread; close it on the same thread.
+     * @return The new scope.
+     */
+    public static Scope open() {
+        Scope scope = new Scope();
+        SCOPES.get().push(scope);
+        return scope;
+    }
+
+    /**
+     * @return The number of scopes open on the current thread; a scope left open by a finished unit of work leaks.
+     */
+    public static int openScopes() {
+        Deque<Scope> scopes = SCOPES.get();
+        int open = scopes.size();
+        if (open == 0) {
+            SCOPES.remove();
+        }
+        return open;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+            return;
+        }
+        for (Scope scope : scopes) {
+            scope.statements++;
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (!(executionContext.getTarget() instanceof ResultSet)
+                || !"next".equals(executionContext.getMethod().getName())
+                || !Boolean.TRUE.equals(executionContext.getResult())) {
+            return;
+        }
+        Deque<Scope> scopes = SCOPES.get();
+        if (scopes.isEmpty()) {
+            SCOPES.remove();
+            return;
+        }
+        for (Scope scope : scopes) {
+            scope.rows++;
+        }
+    }
+}
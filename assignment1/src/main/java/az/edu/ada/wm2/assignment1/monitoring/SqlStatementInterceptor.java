@@ -0,0 +1,91 @@
+/**
+ * Web interceptor reporting the SQL cost of every request: the number of statements and fetched rows are sent as
+ * the X-SQL-Statements and X-SQL-Rows response headers and recorded in the http.server.requests.sql.statements and
+ * http.server.requests.sql.rows distribution summaries, tagged by URI pattern, so N+1 patterns show up per endpoint.
+ * Headers of pages are set after the handler and before the view renders; JSON responses get them from
+ * SqlStatementHeaderAdvice just before the body is written.
+ * An asynchronous request, such as a streamed export, is counted while its handler runs: the scope is closed when
+ * the request thread is released, not reopened on the async dispatch, and recorded once the request completes.
+ * Statements run by the async task on another thread are not counted.
+ */
+package az.edu.ada.wm2.assignment1.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.ModelAndView;
+
+public class SqlStatementInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+    public static final String ROWS_HEADER = "X-SQL-Rows";
+    private static final String SCOPE_ATTRIBUTE = SqlStatementInterceptor.class.getName() + ".scope";
+
+    private final MeterRegistry registry;
+
+    public SqlStatementInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The async dispatch continues the request whose scope was opened and closed on the first dispatch
+        if (request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(SCOPE_ATTRIBUTE, SqlStatementCounter.open());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        // Neither postHandle nor afterCompletion runs on this thread, which goes back to the pool now
+        if (request.getAttribute(SCOPE_ATTRIBUTE) instanceof SqlStatementCounter.Scope scope) {
+            scope.close();
+        }
+    }
+
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        writeHeaders(request, response);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        if (!(request.getAttribute(SCOPE_ATTRIBUTE) instanceof SqlStatementCounter.Scope scope)) {
+            return;
+        }
+        scope.close();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        DistributionSummary.builder("http.server.requests.sql.statements")
+                .description("JDBC statements executed per HTTP request")
+                .tag("uri", uri)
+                .register(registry)
+                .record(scope.getStatements());
+        DistributionSummary.builder("http.server.requests.sql.rows")
+                .description("Result set rows fetched per HTTP request")
+                .tag("uri", uri)
+                .register(registry)
+                .record(scope.getRows());
+    }
+
+    /**
+     * Sets the statement and row headers from the request's scope, unless the response is already committed.
+     * @param request The current request.
+     * @param response The current response.
+     */
+    static void writeHeaders(HttpServletRequest request, HttpServletResponse response) {
+        if (response.isCommitted() || !(request.getAttribute(SCOPE_ATTRIBUTE) instanceof SqlStatementCounter.Scope scope)) {
+            return;
+        }
+        response.setHeader(STATEMENTS_HEADER, Long.toString(scope.getStatements()));
+        response.setHeader(ROWS_HEADER, Long.toString(scope.getRows()));
+    }
+}
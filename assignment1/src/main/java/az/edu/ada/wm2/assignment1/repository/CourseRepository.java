@@ -1,11 +1,20 @@
 package az.edu.ada.wm2.assignment1.repository;
 
+import az.edu.ada.wm2.assignment1.dto.CourseFillRate;
+import az.edu.ada.wm2.assignment1.dto.CourseSummary;
 import az.edu.ada.wm2.assignment1.model.Course;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * The repository interface for accessing and managing course entities in the database.
@@ -23,4 +32,98 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
             nativeQuery = true)
     List<Course> findCoursesTakenByStudent(@Param("studentId") Long studentId);
 
-}
\ No newline at end of file
+    /**
+     * Finds the next keyset page of courses ordered by ID.
+     *
+     * @param afterId the ID of the last course on the previous page, 0 for the first page
+     * @param limit the maximum number of courses to return
+     * @return courses with an ID greater than afterId, in ascending ID order
+     */
+    List<Course> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Finds a course and locks its row until the end of the transaction, bypassing the second-level cache.
+     * Writes that go on to update the counters of the course's students take the course row first,
+     * in the same order as enrollments.
+     *
+     * @param id the ID of the course
+     * @return the locked course, or empty if not found
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Course c WHERE c.id = :id")
+    Optional<Course> findForUpdateById(@Param("id") Long id);
+
+    /**
+     * Lists the course catalog together with the enrollment count of every course.
+     * Reads the seat counter instead of counting enrollments, so the catalog costs one scan of the courses table
+     * however many enrollments there are. The result is kept in the query cache until a course or its seat counter
+     * changes.
+     *
+     * @return a summary of every course, in ascending ID order
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = Course.CATALOG_QUERY_REGION)
+    })
+    @Query("SELECT c.id AS id, c.courseName AS courseName, c.teacherName AS teacherName, " +
+            "c.courseDescription AS courseDescription, c.credit AS credit, c.capacity AS capacity, " +
+            "CAST(c.numberOfStudents AS Long) AS numberOfStudents " +
+            "FROM Course c ORDER BY c.id")
+    List<CourseSummary> findCatalog();
+
+    /**
+     * Finds the seat counter and capacity of every course, for the fill rates of the enrollment analytics.
+     * Reads the maintained counters instead of counting enrollments.
+     *
+     * @return the fill rate projection of every course, in ascending ID order
+     */
+    @Query("SELECT new az.edu.ada.wm2.assignment1.dto.CourseFillRate(c.id, c.courseName, c.numberOfStudents, c.capacity) " +
+            "FROM Course c ORDER BY c.id")
+    List<CourseFillRate> findFillRates();
+
+    /**
+     * Finds the next keyset page of course summaries ordered by ID.
+     * Reads the seat counter instead of counting enrollments, so a page costs one index range scan.
+     *
+     * @param afterId the ID of the last course on the previous page, 0 for the first page
+     * @param limit   the maximum number of courses to return
+     * @return summaries of the courses with an ID greater than afterId, in ascending ID order
+     */
+    @Query("SELECT c.id AS id, c.courseName AS courseName, c.teacherName AS teacherName, " +
+            "c.courseDescription AS courseDescription, c.credit AS credit, c.capacity AS capacity, " +
+            "CAST(c.numberOfStudents AS Long) AS numberOfStudents " +
+            "FROM Course c WHERE c.id > :afterId ORDER BY c.id")
+    List<CourseSummary> findSummaries(@Param("afterId") Long afterId, Limit limit);
+
+    /**
+     * Finds the summary of a single course.
+     *
+     * @param id the ID of the course
+     * @return the summary of the course, or empty if not found
+     */
+    @Query("SELECT c.id AS id, c.courseName AS courseName, c.teacherName AS teacherName, " +
+            "c.courseDescription AS courseDescription, c.credit AS credit, c.capacity AS capacity, " +
+            "CAST(c.numberOfStudents AS Long) AS numberOfStudents " +
+            "FROM Course c WHERE c.id = :id")
+    Optional<CourseSummary> findSummaryById(@Param("id") Long id);
+
+    /**
+     * Finds the next page of courses a student is not enrolled in yet, in ascending ID order.
+     * The enrollments are filtered out with an anti-join, so the student's course list is never loaded.
+     *
+     * @param studentId the ID of the student
+     * @param afterId   the ID of the last course on the previous page, 0 for the first page
+     * @param limit     the maximum number of courses to return
+     * @return a summary of the available courses following afterId
+     */
+    @Query("SELECT c.id AS id, c.courseName AS courseName, c.teacherName AS teacherName, " +
+            "c.courseDescription AS courseDescription, c.credit AS credit, c.capacity AS capacity, " +
+            "CAST(c.numberOfStudents AS Long) AS numberOfStudents " +
+            "FROM Course c " +
+            "WHERE c.id > :afterId AND NOT EXISTS (" +
+            "SELECT 1 FROM Enrollment e WHERE e.id.studentId = :studentId AND e.id.courseId = c.id) " +
+            "ORDER BY c.id")
+    List<CourseSummary> findAvailableForStudent(@Param("studentId") Long studentId,
+                                                @Param("afterId") Long afterId,
+                                                Limit limit);
+}
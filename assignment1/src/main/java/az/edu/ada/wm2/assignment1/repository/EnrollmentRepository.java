@@ -0,0 +1,67 @@
+package az.edu.ada.wm2.assignment1.repository;
+
+import az.edu.ada.wm2.assignment1.dto.EnrollmentSummary;
+import az.edu.ada.wm2.assignment1.model.Enrollment;
+import az.edu.ada.wm2.assignment1.model.EnrollmentId;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository interface for managing Enrollment entities, i.e. the rows of student_course.
+ * Every query addresses rows through the primary key or one of the foreign key indexes.
+ */
+@Repository
+public interface EnrollmentRepository extends JpaRepository<Enrollment, EnrollmentId>, EnrollmentRepositoryCustom {
+
+    /**
+     * Finds the next keyset page of a student's enrollments ordered by course ID.
+     *
+     * @param studentId the ID of the student
+     * @param afterId   the ID of the last course on the previous page, 0 for the first page
+     * @param limit     the maximum number of enrollments to return
+     * @return the student's enrollments with a course ID greater than afterId, in ascending course ID order
+     */
+    @Query("SELECT new az.edu.ada.wm2.assignment1.dto.EnrollmentSummary(c.id, c.courseName, c.credit, e.enrolledAt) " +
+            "FROM Enrollment e JOIN e.course c WHERE e.id.studentId = :studentId AND c.id > :afterId ORDER BY c.id")
+    List<EnrollmentSummary> findSummariesByStudent(@Param("studentId") Long studentId,
+                                                   @Param("afterId") Long afterId,
+                                                   Limit limit);
+
+    /**
+     * Deletes a single enrollment.
+     *
+     * @param studentId the ID of the student
+     * @param courseId  the ID of the course
+     * @return 1 if the enrollment was deleted, 0 if the student did not take the course
+     */
+    @Modifying
+    @Query("DELETE FROM Enrollment e WHERE e.id.studentId = :studentId AND e.id.courseId = :courseId")
+    int deleteOne(@Param("studentId") Long studentId, @Param("courseId") Long courseId);
+
+    /**
+     * Deletes all enrollments of a course in one statement.
+     *
+     * @param courseId the ID of the course
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM Enrollment e WHERE e.id.courseId = :courseId")
+    int deleteByCourseId(@Param("courseId") Long courseId);
+
+    /**
+     * Deletes all enrollments of a set of students in one statement.
+     *
+     * @param studentIds the IDs of the students
+     * @return the number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM Enrollment e WHERE e.id.studentId IN :studentIds")
+    int deleteByStudentIds(@Param("studentIds") Collection<Long> studentIds);
+}
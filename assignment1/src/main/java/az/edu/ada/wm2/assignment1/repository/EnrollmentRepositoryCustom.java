@@ -0,0 +1,18 @@
+package az.edu.ada.wm2.assignment1.repository;
+
+/**
+ * Custom repository fragment for enrollment writes that must declare the tables they touch.
+ * A native statement without declared tables makes Hibernate invalidate every cache region,
+ * so these statements name the entities they change and only the caches depending on them are invalidated.
+ */
+public interface EnrollmentRepositoryCustom {
+
+    /**
+     * Inserts an enrollment unless the student already takes the course or does not exist.
+     *
+     * @param studentId the ID of the student
+     * @param courseId  the ID of the course
+     * @return 1 if the enrollment was created, 0 if it already existed or the student does not exist
+     */
+    int insertIfAbsent(Long studentId, Long courseId);
+}
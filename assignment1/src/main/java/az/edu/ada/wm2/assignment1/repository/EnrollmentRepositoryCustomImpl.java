@@ -0,0 +1,27 @@
+package az.edu.ada.wm2.assignment1.repository;
+
+import az.edu.ada.wm2.assignment1.model.Enrollment;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+/**
+ * Native query implementation of {@link EnrollmentRepositoryCustom}.
+ */
+public class EnrollmentRepositoryCustomImpl implements EnrollmentRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertIfAbsent(Long studentId, Long courseId) {
+        return entityManager.createNativeQuery("INSERT INTO student_course (student_id, course_id, enrolled_at) " +
+                        "SELECT s.id, CAST(:courseId AS BIGINT), CURRENT_TIMESTAMP FROM students s WHERE s.id = :studentId " +
+                        "AND NOT EXISTS (SELECT 1 FROM student_course WHERE student_id = :studentId AND course_id = :courseId)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(Enrollment.class)
+                .setParameter("studentId", studentId)
+                .setParameter("courseId", courseId)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,28 @@
+package az.edu.ada.wm2.assignment1.repository;
+
+import az.edu.ada.wm2.assignment1.dto.MajorStats;
+import az.edu.ada.wm2.assignment1.model.MajorStatsStripe;
+import az.edu.ada.wm2.assignment1.model.MajorStatsStripeId;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository interface for managing MajorStatsStripe entities, the striped running enrollment totals per major.
+ * Reads sum the stripes of every major; the writes are in {@link MajorStatsRepositoryCustom}.
+ */
+@Repository
+public interface MajorStatsRepository extends JpaRepository<MajorStatsStripe, MajorStatsStripeId>, MajorStatsRepositoryCustom {
+
+    /**
+     * Finds the totals of every major with students, summed over its stripes.
+     *
+     * @return the totals of every major, in alphabetical order
+     */
+    @Query("SELECT new az.edu.ada.wm2.assignment1.dto.MajorStats(m.id.major, SUM(m.students), " +
+            "SUM(m.enrolledCourses), SUM(m.enrolledCredits)) FROM MajorStatsStripe m " +
+            "GROUP BY m.id.major HAVING SUM(m.students) > 0 ORDER BY m.id.major")
+    List<MajorStats> findTotals();
+}
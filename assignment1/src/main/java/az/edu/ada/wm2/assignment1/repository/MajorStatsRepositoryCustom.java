@@ -0,0 +1,59 @@
+package az.edu.ada.wm2.assignment1.repository;
+
+import java.util.Collection;
+
+/**
+ * Custom repository fragment for the major totals writes that run with every student creation, deletion and
+ * enrollment. Each moves only the stripes of the students it touches, the stripe of a student being its ID modulo
+ * the number of stripes, and creates a stripe row the first time a student of the major falls into it.
+ * They are native statements that declare major_stats as the only table they change, so they leave the course
+ * caches alone; undeclared native statements would invalidate every cache region.
+ */
+public interface MajorStatsRepositoryCustom {
+
+    /**
+     * Adds a set of students, with the enrollment totals held in their counters, to the stripes of their majors,
+     * or removes them with a negative sign.
+     *
+     * @param ids  the IDs of the students
+     * @param sign 1 for created students, -1 for students about to be deleted
+     * @return the number of stripes updated or created
+     */
+    int addStudents(Collection<Long> ids, int sign);
+
+    /**
+     * Moves the stripe of a student by one enrollment in a course.
+     *
+     * @param studentId the ID of the student
+     * @param courseId  the ID of the course
+     * @param sign      1 for an enrollment, -1 for a drop
+     * @return the number of stripes updated
+     */
+    int addEnrollment(Long studentId, Long courseId, int sign);
+
+    /**
+     * Adds one enrollment in a course to the stripes of a set of newly enrolled students.
+     *
+     * @param courseId the ID of the course
+     * @param ids      the IDs of the students
+     * @return the number of stripes updated or created
+     */
+    int addEnrollments(Long courseId, Collection<Long> ids);
+
+    /**
+     * Takes the enrollments in a course out of the stripes of its students, before the course is deleted.
+     *
+     * @param courseId the ID of the course
+     * @return the number of stripes updated or created
+     */
+    int removeEnrollmentsIn(Long courseId);
+
+    /**
+     * Moves the credit totals of the stripes of a course's students by a change of the course's credit.
+     *
+     * @param courseId the ID of the course
+     * @param delta    the new credit minus the old credit
+     * @return the number of stripes updated or created
+     */
+    int addCreditsIn(Long courseId, int delta);
+}
@@ -0,0 +1,98 @@
+package az.edu.ada.wm2.assignment1.repository;
+
+import az.edu.ada.wm2.assignment1.model.MajorStatsStripe;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.query.NativeQuery;
+
+import java.util.Collection;
+
+/**
+ * Native query implementation of {@link MajorStatsRepositoryCustom}. The set-based writes compute the change of
+ * every affected stripe in a subquery and merge it into major_stats in one statement.
+ */
+public class MajorStatsRepositoryCustomImpl implements MajorStatsRepositoryCustom {
+
+    /**
+     * The stripe of the student aliased s.
+     */
+    private static final String STRIPE = "MOD(s.id, " + MajorStatsStripe.STRIPES + ")";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int addStudents(Collection<Long> ids, int sign) {
+        return merge("SELECT s.major, " + STRIPE + " AS stripe, :sign * COUNT(*) AS students, " +
+                ":sign * SUM(s.enrolled_courses) AS courses, :sign * SUM(s.enrolled_credits) AS credits " +
+                "FROM students s WHERE s.id IN (:ids) AND s.major IS NOT NULL GROUP BY s.major, " + STRIPE)
+                .setParameterList("ids", ids)
+                .setParameter("sign", sign)
+                .executeUpdate();
+    }
+
+    @Override
+    public int addEnrollment(Long studentId, Long courseId, int sign) {
+        return update("UPDATE major_stats SET enrolled_courses = enrolled_courses + :sign, " +
+                "enrolled_credits = enrolled_credits + :sign * (SELECT credit FROM courses WHERE id = :courseId) " +
+                "WHERE major = (SELECT major FROM students WHERE id = :studentId) " +
+                "AND stripe = (SELECT " + STRIPE + " FROM students s WHERE s.id = :studentId)")
+                .setParameter("studentId", studentId)
+                .setParameter("courseId", courseId)
+                .setParameter("sign", sign)
+                .executeUpdate();
+    }
+
+    @Override
+    public int addEnrollments(Long courseId, Collection<Long> ids) {
+        return merge("SELECT s.major, " + STRIPE + " AS stripe, 0 AS students, COUNT(*) AS courses, " +
+                "COUNT(*) * c.credit AS credits FROM students s JOIN courses c ON c.id = :courseId " +
+                "WHERE s.id IN (:ids) AND s.major IS NOT NULL GROUP BY s.major, " + STRIPE + ", c.credit")
+                .setParameter("courseId", courseId)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    public int removeEnrollmentsIn(Long courseId) {
+        return merge("SELECT s.major, " + STRIPE + " AS stripe, 0 AS students, -COUNT(*) AS courses, " +
+                "-COUNT(*) * c.credit AS credits FROM student_course sc JOIN students s ON s.id = sc.student_id " +
+                "JOIN courses c ON c.id = sc.course_id WHERE sc.course_id = :courseId AND s.major IS NOT NULL " +
+                "GROUP BY s.major, " + STRIPE + ", c.credit")
+                .setParameter("courseId", courseId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int addCreditsIn(Long courseId, int delta) {
+        return merge("SELECT s.major, " + STRIPE + " AS stripe, 0 AS students, 0 AS courses, " +
+                ":delta * COUNT(*) AS credits FROM student_course sc JOIN students s ON s.id = sc.student_id " +
+                "WHERE sc.course_id = :courseId AND s.major IS NOT NULL GROUP BY s.major, " + STRIPE)
+                .setParameter("courseId", courseId)
+                .setParameter("delta", delta)
+                .executeUpdate();
+    }
+
+    /**
+     * Creates a native statement adding the changes computed by a query, one row of (major, stripe, students,
+     * courses, credits) per stripe, to the stripes of major_stats, and inserting the stripes not there yet.
+     */
+    private NativeQuery<?> merge(String changes) {
+        return update("MERGE INTO major_stats m USING (" + changes + ") d " +
+                "ON m.major = d.major AND m.stripe = d.stripe " +
+                "WHEN MATCHED THEN UPDATE SET students = m.students + d.students, " +
+                "enrolled_courses = m.enrolled_courses + d.courses, enrolled_credits = m.enrolled_credits + d.credits " +
+                "WHEN NOT MATCHED THEN INSERT (major, stripe, students, enrolled_courses, enrolled_credits) " +
+                "VALUES (d.major, d.stripe, d.students, d.courses, d.credits)");
+    }
+
+    /**
+     * Creates a native update that declares major_stats as the only table it changes,
+     * so that no other cache region is invalidated.
+     */
+    private NativeQuery<?> update(String sql) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(MajorStatsStripe.class);
+    }
+}
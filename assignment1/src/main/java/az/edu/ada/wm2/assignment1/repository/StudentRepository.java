@@ -1,19 +1,65 @@
 package az.edu.ada.wm2.assignment1.repository;
 
+import az.edu.ada.wm2.assignment1.dto.StudentEnrollmentRow;
+import az.edu.ada.wm2.assignment1.dto.StudentSummary;
 import az.edu.ada.wm2.assignment1.model.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * The repository interface for accessing and managing student entities in the database.
  * This interface extends JpaRepository to inherit basic CRUD operations.
  */
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentRepositoryCustom {
+
+    /**
+     * Finds a student together with their enrollments and courses in a single statement.
+     *
+     * @param id the ID of the student
+     * @return the student with the enrollments and their courses initialized, or empty if not found
+     */
+    @EntityGraph(attributePaths = {"enrollments", "enrollments.course"})
+    Optional<Student> findWithCoursesById(Long id);
+
+    /**
+     * Finds the next keyset page of students ordered by ID.
+     *
+     * @param afterId the ID of the last student on the previous page, 0 for the first page
+     * @param limit the maximum number of students to return
+     * @return students with an ID greater than afterId, in ascending ID order
+     */
+    List<Student> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    /**
+     * Finds the version of a student without loading the student, e.g. to answer a conditional request.
+     *
+     * @param id the ID of the student
+     * @return the version of the student, or empty if not found
+     */
+    @Query("SELECT s.version FROM Student s WHERE s.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Finds the next keyset page of students whose name contains the specified string ignoring case.
+     *
+     * @param name the string to search for in student names
+     * @param afterId the ID of the last student on the previous page, 0 for the first page
+     * @param limit the maximum number of students to return
+     * @return matching students with an ID greater than afterId, in ascending ID order
+     */
+    List<Student> findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(String name, Long afterId, Limit limit);
 
     /**
      * Finds students by their name containing the specified string ignoring case.
@@ -41,50 +87,62 @@ public interface StudentRepository extends JpaRepository<Student, Long> {
     List<Student> findStudentsByMajor(@Param("major") String major);
 
     /**
-     * Finds students ordered by name in ascending order.
+     * Finds the IDs of all students in a major, e.g. to enroll a whole cohort at once.
      *
-     * @return a list of students ordered by name in ascending order
-     */
-    @Query(value = "SELECT * FROM Students ORDER BY NAME ASC", nativeQuery = true)
-    List<Student> findByNameOrderByNameAsc();
-
-    /**
-     * Finds students ordered by name in descending order.
-     *
-     * @return a list of students ordered by name in descending order
+     * @param major the major to search for
+     * @return the IDs of the students majoring in the specified major
      */
-    @Query(value = "SELECT * FROM Students ORDER BY NAME DESC", nativeQuery = true)
-    List<Student> findByNameOrderByNameDesc();
+    @Query("SELECT s.id FROM Student s WHERE s.major = :major")
+    List<Long> findIdsByMajor(@Param("major") String major);
 
     /**
-     * Finds students ordered by surname in ascending order.
+     * Streams every student joined with their courses in a single pass, ordered by student and course ID.
+     * The rows are read from the JDBC cursor in chunks as the stream is consumed; the stream must be consumed
+     * inside a transaction and closed afterwards.
      *
-     * @return a list of students ordered by surname in ascending order
+     * @return a stream of student/course rows, one per enrollment and one for each student without enrollments
      */
-    @Query(value = "SELECT * FROM Students ORDER BY SURNAME ASC", nativeQuery = true)
-    List<Student> findBySurnameOrderBySurnameAsc();
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new az.edu.ada.wm2.assignment1.dto.StudentEnrollmentRow(" +
+            "s.id, s.name, s.surname, s.major, s.dateOfBirth, c.id, c.courseName, c.credit, e.enrolledAt) " +
+            "FROM Student s LEFT JOIN s.enrollments e LEFT JOIN e.course c ORDER BY s.id, c.id")
+    Stream<StudentEnrollmentRow> streamEnrollmentRows();
 
     /**
-     * Finds students ordered by surname in descending order.
+     * Finds the next keyset page of student summaries ordered by ID.
      *
-     * @return a list of students ordered by surname in descending order
+     * @param afterId the ID of the last student on the previous page, 0 for the first page
+     * @param limit   the maximum number of students to return
+     * @return summaries of the students with an ID greater than afterId, in ascending ID order
      */
-    @Query(value = "SELECT * FROM Students ORDER BY SURNAME DESC", nativeQuery = true)
-    List<Student> findBySurnameOrderBySurnameDesc();
+    @Query("SELECT new az.edu.ada.wm2.assignment1.dto.StudentSummary(s.id, s.name, s.surname, s.major, s.dateOfBirth) " +
+            "FROM Student s WHERE s.id > :afterId ORDER BY s.id")
+    List<StudentSummary> findSummaries(@Param("afterId") Long afterId, Limit limit);
 
     /**
-     * Finds students ordered by major in ascending order.
+     * Finds the summary of a single student.
      *
-     * @return a list of students ordered by major in ascending order
+     * @param id the ID of the student
+     * @return the summary of the student, or empty if not found
      */
-    @Query(value = "SELECT * FROM Students ORDER BY MAJOR ASC", nativeQuery = true)
-    List<Student> findByMajorOrderByMajorAsc();
+    @Query("SELECT new az.edu.ada.wm2.assignment1.dto.StudentSummary(s.id, s.name, s.surname, s.major, s.dateOfBirth) " +
+            "FROM Student s WHERE s.id = :id")
+    Optional<StudentSummary> findSummaryById(@Param("id") Long id);
 
     /**
-     * Finds students ordered by major in descending order.
+     * Finds the next keyset page of summaries of the students enrolled in a course, ordered by ID.
      *
-     * @return a list of students ordered by major in descending order
+     * @param courseId the ID of the course
+     * @param afterId  the ID of the last student on the previous page, 0 for the first page
+     * @param limit    the maximum number of students to return
+     * @return summaries of the enrolled students with an ID greater than afterId, in ascending ID order
      */
-    @Query(value = "SELECT * FROM Students ORDER BY MAJOR DESC", nativeQuery = true)
-    List<Student> findByMajorOrderByMajorDesc();
-}
\ No newline at end of file
+    @Query("SELECT new az.edu.ada.wm2.assignment1.dto.StudentSummary(s.id, s.name, s.surname, s.major, s.dateOfBirth) " +
+            "FROM Enrollment e JOIN e.student s WHERE e.id.courseId = :courseId AND s.id > :afterId ORDER BY s.id")
+    List<StudentSummary> findSummariesByCourse(@Param("courseId") Long courseId,
+                                               @Param("afterId") Long afterId,
+                                               Limit limit);
+}
@@ -0,0 +1,95 @@
+package az.edu.ada.wm2.assignment1.repository;
+
+import az.edu.ada.wm2.assignment1.model.Student;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Custom repository fragment for student queries that Spring Data cannot derive from a method name,
+ * and for the counter writes that run with enrollments and deletions. Those are native statements that declare
+ * the one table they change, students or courses, so only the cache regions of that table are invalidated;
+ * undeclared native statements would invalidate every cache region.
+ */
+public interface StudentRepositoryCustom {
+
+    /**
+     * Finds the next keyset page of students ordered by a property, with the ID as a tiebreaker in the same direction.
+     * Students whose property is null come first in ascending and last in descending order.
+     * Only the string properties name, surname and major can be sorted by.
+     *
+     * @param order the property and direction to order by
+     * @param afterKey the property value of the last student on the previous page, null for the first page
+     * @param afterKeyNull whether the property value of the last student on the previous page was null
+     * @param afterId the ID of the last student on the previous page, null for the first page
+     * @param limit the maximum number of students to return
+     * @return the students following the (afterKey, afterId) position in the requested order
+     * @throws IllegalArgumentException if the property is not sortable
+     */
+    List<Student> findSortedPage(Sort.Order order, String afterKey, boolean afterKeyNull, Long afterId, int limit);
+
+    /**
+     * Moves a student's enrollment counters by one enrollment in a course.
+     *
+     * @param studentId the ID of the student
+     * @param courseId  the ID of the course
+     * @param sign      1 for an enrollment, -1 for a drop
+     * @return the number of students updated
+     */
+    int addEnrollment(Long studentId, Long courseId, int sign);
+
+    /**
+     * Adds one enrollment in a course to the counters of a set of newly enrolled students.
+     *
+     * @param courseId the ID of the course
+     * @param ids      the IDs of the students
+     * @return the number of students updated
+     */
+    int addEnrollments(Long courseId, Collection<Long> ids);
+
+    /**
+     * Locks the courses a set of students is enrolled in, in ID order like every other multi-course lock,
+     * so that deleting the students can not deadlock with enrollments taking the same courses.
+     *
+     * @param ids the IDs of the students
+     * @return the IDs of the locked courses, in ascending order
+     */
+    List<Long> lockCoursesOfStudents(Collection<Long> ids);
+
+    /**
+     * Locks a set of students in ID order, so that moving their major totals before deleting them takes the
+     * students before the totals, in the order enrollments take them.
+     *
+     * @param ids the IDs of the students
+     * @return the IDs of the locked students, in ascending order
+     */
+    List<Long> lockStudents(Collection<Long> ids);
+
+    /**
+     * Gives back the seats held by a set of students in one statement:
+     * every course's counter drops by the number of those students enrolled in it.
+     *
+     * @param courseIds the IDs of the courses the students are enrolled in, locked by lockCoursesOfStudents
+     * @param ids       the IDs of the students
+     * @return the number of courses updated
+     */
+    int releaseSeatsOfStudents(Collection<Long> courseIds, Collection<Long> ids);
+
+    /**
+     * Takes one enrollment in a course out of the counters of every student enrolled in it, before the course is deleted.
+     *
+     * @param courseId the ID of the course
+     * @return the number of students updated
+     */
+    int removeEnrollmentsIn(Long courseId);
+
+    /**
+     * Moves the credit totals of every student enrolled in a course by a change of the course's credit.
+     *
+     * @param courseId the ID of the course
+     * @param delta    the new credit minus the old credit
+     * @return the number of students updated
+     */
+    int addCreditsIn(Long courseId, int delta);
+}
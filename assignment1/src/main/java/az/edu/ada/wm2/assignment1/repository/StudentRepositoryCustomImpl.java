@@ -0,0 +1,144 @@
+package az.edu.ada.wm2.assignment1.repository;
+
+import az.edu.ada.wm2.assignment1.model.Course;
+import az.edu.ada.wm2.assignment1.model.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.NativeQuery;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Criteria API and native query implementation of {@link StudentRepositoryCustom}.
+ */
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+
+    /**
+     * The sortable properties; all of them are strings, so the cursor value is used as the key without conversion.
+     */
+    private static final Set<String> SORTABLE = Set.of("name", "surname", "major");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Student> findSortedPage(Sort.Order order, String afterKey, boolean afterKeyNull, Long afterId, int limit) {
+        if (!SORTABLE.contains(order.getProperty())) {
+            throw new IllegalArgumentException("Students can not be sorted by " + order.getProperty());
+        }
+        HibernateCriteriaBuilder cb = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCriteriaBuilder();
+        CriteriaQuery<Student> query = cb.createQuery(Student.class);
+        Root<Student> student = query.from(Student.class);
+        Path<String> key = student.get(order.getProperty());
+        Path<Long> id = student.get("id");
+        boolean asc = order.isAscending();
+
+        // Null keys sort below all others, as in the (property, id) indexes: first when ascending, last when descending
+        if (afterId != null && afterKeyNull) {
+            // Seek past the last row of the previous page, which had a null key
+            Predicate seek = asc
+                    ? cb.or(cb.isNotNull(key), cb.and(cb.isNull(key), cb.greaterThan(id, afterId)))
+                    : cb.and(cb.isNull(key), cb.lessThan(id, afterId));
+            query.where(seek);
+        } else if (afterId != null && afterKey != null) {
+            // Seek past the last row of the previous page: (key, id) > (afterKey, afterId), or < when descending
+            Predicate seek = asc
+                    ? cb.or(cb.greaterThan(key, afterKey), cb.and(cb.equal(key, afterKey), cb.greaterThan(id, afterId)))
+                    : cb.or(cb.lessThan(key, afterKey), cb.and(cb.equal(key, afterKey), cb.lessThan(id, afterId)),
+                    cb.isNull(key));
+            query.where(seek);
+        }
+        query.orderBy(asc ? cb.asc(key, true) : cb.desc(key, false), asc ? cb.asc(id) : cb.desc(id));
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public int addEnrollment(Long studentId, Long courseId, int sign) {
+        return update("UPDATE students SET enrolled_courses = enrolled_courses + :sign, " +
+                "enrolled_credits = enrolled_credits + :sign * (SELECT credit FROM courses WHERE id = :courseId) " +
+                "WHERE id = :studentId", Student.class)
+                .setParameter("studentId", studentId)
+                .setParameter("courseId", courseId)
+                .setParameter("sign", sign)
+                .executeUpdate();
+    }
+
+    @Override
+    public int addEnrollments(Long courseId, Collection<Long> ids) {
+        return update("UPDATE students SET enrolled_courses = enrolled_courses + 1, " +
+                "enrolled_credits = enrolled_credits + (SELECT credit FROM courses WHERE id = :courseId) " +
+                "WHERE id IN (:ids)", Student.class)
+                .setParameter("courseId", courseId)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> lockCoursesOfStudents(Collection<Long> ids) {
+        return entityManager.createNativeQuery("SELECT id FROM courses " +
+                        "WHERE id IN (SELECT course_id FROM student_course WHERE student_id IN (:ids)) " +
+                        "ORDER BY id FOR UPDATE", Long.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> lockStudents(Collection<Long> ids) {
+        return entityManager.createNativeQuery("SELECT id FROM students WHERE id IN (:ids) ORDER BY id FOR UPDATE",
+                        Long.class)
+                .setParameter("ids", ids)
+                .getResultList();
+    }
+
+    @Override
+    public int releaseSeatsOfStudents(Collection<Long> courseIds, Collection<Long> ids) {
+        return update("UPDATE courses c SET version = version + 1, number_of_students = number_of_students - " +
+                "(SELECT COUNT(*) FROM student_course sc WHERE sc.course_id = c.id AND sc.student_id IN (:ids)) " +
+                "WHERE c.id IN (:courseIds)", Course.class)
+                .setParameterList("courseIds", courseIds)
+                .setParameterList("ids", ids)
+                .executeUpdate();
+    }
+
+    @Override
+    public int removeEnrollmentsIn(Long courseId) {
+        return update("UPDATE students SET enrolled_courses = enrolled_courses - 1, " +
+                "enrolled_credits = enrolled_credits - (SELECT credit FROM courses WHERE id = :courseId) " +
+                "WHERE id IN (SELECT student_id FROM student_course WHERE course_id = :courseId)", Student.class)
+                .setParameter("courseId", courseId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int addCreditsIn(Long courseId, int delta) {
+        return update("UPDATE students SET enrolled_credits = enrolled_credits + :delta " +
+                "WHERE id IN (SELECT student_id FROM student_course WHERE course_id = :courseId)", Student.class)
+                .setParameter("courseId", courseId)
+                .setParameter("delta", delta)
+                .executeUpdate();
+    }
+
+    /**
+     * Creates a native update that declares the entity whose table it changes,
+     * so that only the cache regions of that table are invalidated.
+     */
+    private NativeQuery<?> update(String sql, Class<?> changedEntity) {
+        return entityManager.createNativeQuery(sql)
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(changedEntity);
+    }
+}
@@ -0,0 +1,76 @@
+package az.edu.ada.wm2.assignment1.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted, duplicate-free list of student IDs stored in a primitive array.
+ * IDs usually arrive in ascending order, so adding is an append in the common case.
+ * Not thread-safe; StudentSearchIndex guards all access.
+ */
+class LongPostings {
+
+    private long[] ids = new long[4];
+    private int size;
+
+    /**
+     * Adds an ID, keeping the list sorted.
+     * @param id The ID to add.
+     */
+    void add(long id) {
+        if (size > 0 && ids[size - 1] < id) {
+            grow();
+            ids[size++] = id;
+            return;
+        }
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            return;
+        }
+        int insertAt = -pos - 1;
+        grow();
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    /**
+     * Removes an ID if present.
+     * @param id The ID to remove.
+     */
+    void remove(long id) {
+        int pos = Arrays.binarySearch(ids, 0, size, id);
+        if (pos >= 0) {
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+        }
+    }
+
+    /**
+     * @param id The ID to look up.
+     * @return Whether the list contains the ID.
+     */
+    boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    /**
+     * @return The number of IDs in the list.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * @param index The position in the list.
+     * @return The ID at that position.
+     */
+    long get(int index) {
+        return ids[index];
+    }
+
+    private void grow() {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+    }
+}
@@ -0,0 +1,371 @@
+package az.edu.ada.wm2.assignment1.search;
+
+import az.edu.ada.wm2.assignment1.model.Student;
+import az.edu.ada.wm2.assignment1.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory search index over student name, surname and major.
+ * Replaces the LOWER(name) LIKE '%x%' table scans of the search box with posting-list intersections.
+ * <p>
+ * Query tokens of three or more characters match anywhere inside a field (like LIKE '%x%') and are looked up
+ * through a trigram index; shorter tokens match the start of a word and are looked up through a sorted word index.
+ * Every token must match at least one field. Hits are ranked by where they matched (name before surname before
+ * major, word start before inner substring) and then by ID.
+ * <p>
+ * The index is built from the database on startup and kept up to date by StudentService once a save or delete
+ * has committed. A rebuild fills a new set of postings off to the side and swaps it in under the write lock, replaying
+ * the saves and deletes that arrived while it was reading, so searches keep using the old postings until then.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudentSearchIndex {
+
+    /**
+     * Length of the n-grams in the substring index.
+     */
+    private static final int GRAM = 3;
+
+    /**
+     * Number of students loaded per query while rebuilding the index.
+     */
+    private static final int REBUILD_BATCH = 1000;
+
+    /**
+     * One page of search hits.
+     * @param total The number of students matching the query.
+     * @param ids The IDs of the students on the requested page, best match first.
+     */
+    public record Hits(int total, List<Long> ids) {
+    }
+
+    private record Doc(String name, String surname, String major) {
+    }
+
+    private record Hit(long id, int score) {
+    }
+
+    /**
+     * Orders hits best first: by descending score, then by ID.
+     */
+    private static final Comparator<Hit> RANK = Comparator.comparingInt(Hit::score).reversed().thenComparingLong(Hit::id);
+
+    private final StudentRepository studentRepo;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The postings searched; replaced as a whole by a rebuild. Guarded by the lock.
+     */
+    private Postings postings = new Postings();
+
+    /**
+     * The saves (student documents) and deletes (null) applied while a rebuild is reading the table, by student ID;
+     * null when no rebuild is running. Guarded by the lock.
+     */
+    private Map<Long, Doc> changedDuringRebuild;
+
+    /**
+     * Rebuilds the index from the students table, reading it in keyset-paginated batches.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Postings rebuilt = new Postings();
+        boolean complete = false;
+        try {
+            long afterId = 0;
+            List<Student> batch;
+            do {
+                batch = studentRepo.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(REBUILD_BATCH));
+                for (Student student : batch) {
+                    rebuilt.put(student.getId(), docOf(student));
+                }
+                if (!batch.isEmpty()) {
+                    afterId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                // A batch may have been read before a save or delete committed; the change recorded for it wins
+                if (complete) {
+                    changedDuringRebuild.forEach(rebuilt::apply);
+                    postings = rebuilt;
+                }
+                changedDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Adds a student to the index, replacing any previously indexed version of it.
+     * @param student The student to index; must have an ID.
+     */
+    public void index(Student student) {
+        change(student.getId(), docOf(student));
+    }
+
+    /**
+     * Removes a student from the index.
+     * @param id The ID of the student to remove.
+     */
+    public void remove(Long id) {
+        change(id, null);
+    }
+
+    private void change(long id, Doc doc) {
+        lock.writeLock().lock();
+        try {
+            postings.apply(id, doc);
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.put(id, doc);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return The number of indexed students.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return postings.docs.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the students matching every whitespace-separated token of a query, best match first.
+     * @param query The search query.
+     * @param offset The number of hits to skip.
+     * @param limit The maximum number of hits to return.
+     * @return The total number of hits and the IDs of the requested page of hits.
+     */
+    public Hits search(String query, int offset, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty()) {
+            return new Hits(0, List.of());
+        }
+        // Only the best offset + limit hits are kept, in a heap whose head is the worst of them
+        int keep = (int) Math.min((long) offset + limit, Integer.MAX_VALUE);
+        PriorityQueue<Hit> best = new PriorityQueue<>(RANK.reversed());
+        int total = 0;
+        lock.readLock().lock();
+        try {
+            for (long id : candidates(tokens)) {
+                int score = score(postings.docs.get(id), tokens);
+                if (score == 0) {
+                    continue;
+                }
+                total++;
+                Hit hit = new Hit(id, score);
+                if (best.size() < keep) {
+                    best.add(hit);
+                } else if (keep > 0 && RANK.compare(hit, best.peek()) < 0) {
+                    best.poll();
+                    best.add(hit);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Hit> top = new ArrayList<>(best);
+        top.sort(RANK);
+        List<Long> page = top.stream()
+                .skip(offset)
+                .map(Hit::id)
+                .toList();
+        return new Hits(total, page);
+    }
+
+    /**
+     * Collects the IDs that may match all tokens. Must be called under the read lock.
+     * Long tokens narrow the candidates to the intersection of their trigram postings, starting from the shortest
+     * list; if all tokens are short, the candidates are the students with a word starting with the longest token.
+     */
+    private long[] candidates(List<String> tokens) {
+        List<LongPostings> required = new ArrayList<>();
+        for (String token : tokens) {
+            if (token.length() < GRAM) {
+                continue;
+            }
+            for (int i = 0; i + GRAM <= token.length(); i++) {
+                LongPostings gramPostings = postings.grams.get(token.substring(i, i + GRAM));
+                if (gramPostings == null) {
+                    return new long[0];
+                }
+                required.add(gramPostings);
+            }
+        }
+        if (!required.isEmpty()) {
+            required.sort(Comparator.comparingInt(LongPostings::size));
+            LongPostings smallest = required.get(0);
+            long[] result = new long[smallest.size()];
+            int count = 0;
+            for (int i = 0; i < smallest.size(); i++) {
+                long id = smallest.get(i);
+                boolean inAll = true;
+                for (int j = 1; j < required.size() && inAll; j++) {
+                    inAll = required.get(j).contains(id);
+                }
+                if (inAll) {
+                    result[count++] = id;
+                }
+            }
+            return Arrays.copyOf(result, count);
+        }
+        String prefix = tokens.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        Set<Long> ids = new HashSet<>();
+        for (LongPostings wordPostings : postings.words.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            for (int i = 0; i < wordPostings.size(); i++) {
+                ids.add(wordPostings.get(i));
+            }
+        }
+        return ids.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Scores a student against all tokens; 0 if any token matches no field.
+     */
+    private static int score(Doc doc, List<String> tokens) {
+        int total = 0;
+        for (String token : tokens) {
+            int best = Math.max(fieldScore(doc.name(), token, 6, 3),
+                    Math.max(fieldScore(doc.surname(), token, 4, 2), fieldScore(doc.major(), token, 2, 1)));
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        return total;
+    }
+
+    private static int fieldScore(String value, String token, int wordStartScore, int substringScore) {
+        if (value.startsWith(token) || value.contains(" " + token)) {
+            return wordStartScore;
+        }
+        return token.length() >= GRAM && value.contains(token) ? substringScore : 0;
+    }
+
+    private static Doc docOf(Student student) {
+        return new Doc(normalize(student.getName()), normalize(student.getSurname()), normalize(student.getMajor()));
+    }
+
+    /**
+     * The indexed documents with their trigram and word postings.
+     */
+    private static final class Postings {
+
+        private final Map<Long, Doc> docs = new HashMap<>();
+        private final Map<String, LongPostings> grams = new HashMap<>();
+        private final NavigableMap<String, LongPostings> words = new TreeMap<>();
+
+        /**
+         * Indexes a document under an ID, replacing the previous one; removes the ID if the document is null.
+         */
+        void apply(long id, Doc doc) {
+            if (doc == null) {
+                remove(id);
+            } else {
+                put(id, doc);
+            }
+        }
+
+        void put(long id, Doc doc) {
+            remove(id);
+            docs.put(id, doc);
+            for (String gram : gramsOf(doc)) {
+                grams.computeIfAbsent(gram, g -> new LongPostings()).add(id);
+            }
+            for (String word : wordsOf(doc)) {
+                words.computeIfAbsent(word, w -> new LongPostings()).add(id);
+            }
+        }
+
+        void remove(long id) {
+            Doc old = docs.remove(id);
+            if (old == null) {
+                return;
+            }
+            for (String gram : gramsOf(old)) {
+                removeFrom(grams, gram, id);
+            }
+            for (String word : wordsOf(old)) {
+                removeFrom(words, word, id);
+            }
+        }
+    }
+
+    private static void removeFrom(Map<String, LongPostings> index, String key, long id) {
+        LongPostings postings = index.get(key);
+        if (postings != null) {
+            postings.remove(id);
+            if (postings.size() == 0) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static Set<String> gramsOf(Doc doc) {
+        Set<String> result = new HashSet<>();
+        for (String field : List.of(doc.name(), doc.surname(), doc.major())) {
+            for (int i = 0; i + GRAM <= field.length(); i++) {
+                result.add(field.substring(i, i + GRAM));
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> wordsOf(Doc doc) {
+        Set<String> result = new HashSet<>();
+        for (String field : List.of(doc.name(), doc.surname(), doc.major())) {
+            result.addAll(tokenize(field));
+        }
+        return result;
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalize(text).split("\\s+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+}
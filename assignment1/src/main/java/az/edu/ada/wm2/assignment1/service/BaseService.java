@@ -4,6 +4,8 @@
  */
 package az.edu.ada.wm2.assignment1.service;
 
+import az.edu.ada.wm2.assignment1.dto.KeysetPage;
+
 import java.util.List;
 
 public interface BaseService<T> {
@@ -13,6 +15,14 @@ public interface BaseService<T> {
      */
     List<T> list();
 
+    /**
+     * Retrieves one keyset page of entities ordered by ID.
+     * @param afterId The ID of the last entity on the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default; clamped to KeysetPage.MAX_SIZE.
+     * @return The page of entities following afterId.
+     */
+    KeysetPage<T> listPage(Long afterId, Integer size);
+
     /**
      * Deletes an entity by its ID.
      * @param id The ID of the entity to be deleted.
@@ -0,0 +1,81 @@
+/**
+ * Component keeping the second-level and query caches of the course catalog consistent with writes that bypass
+ * Hibernate, such as the JDBC seat counter updates and batch inserts into student_course.
+ * Only the courses a write touched are evicted from the entity region, so the other courses stay cached; the catalog
+ * query results, which read every course's seat counter, are evicted with them.
+ * Writes made through Hibernate (entity saves, JPQL and native queries declaring their entities) invalidate
+ * the caches on their own.
+ */
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import az.edu.ada.wm2.assignment1.model.Course;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogCache {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Evicts a course whose row has been updated with JDBC, e.g. its seat counter, and the catalog query results,
+     * which read that counter.
+     * @param courseId The ID of the course.
+     */
+    public void evictCourse(Long courseId) {
+        evict(List.of(courseId));
+    }
+
+    /**
+     * Evicts courses whose rows and enrollments have been written with JDBC, and the catalog query results.
+     * @param courseIds The IDs of the courses.
+     */
+    public void evict(Collection<Long> courseIds) {
+        List<Long> ids = List.copyOf(courseIds);
+        afterWrite(() -> {
+            Cache cache = cache();
+            ids.forEach(id -> cache.evictEntityData(Course.class, id));
+            cache.evictQueryRegion(Course.CATALOG_QUERY_REGION);
+        });
+    }
+
+    /**
+     * Evicts all cached courses and catalog query results, after writes that may have touched any course.
+     */
+    public void evictAll() {
+        afterWrite(() -> {
+            Cache cache = cache();
+            cache.evictEntityData(Course.class);
+            cache.evictQueryRegion(Course.CATALOG_QUERY_REGION);
+        });
+    }
+
+    /**
+     * Runs an eviction now and, inside a transaction, again after commit,
+     * so no other transaction can re-cache the data it read before the commit.
+     */
+    private static void afterWrite(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
@@ -0,0 +1,56 @@
+/**
+ * Component holding the version of the course catalog: the courses, their seat counters and all enrollments.
+ * Every service write that changes one of them raises the version, so pages built from the catalog can be
+ * answered with 304 Not Modified while the version is unchanged, after one primary key lookup.
+ * The version is kept in the catalog_revision table rather than in memory, so all instances sharing the database
+ * agree on it and a durable database keeps it across restarts. Its epoch is drawn when the row is created,
+ * so tags issued against an earlier in-memory database never match.
+ */
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogVersion {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Returns the current catalog version.
+     * Must be read before the data it describes, so a page is never tagged with a version newer than its content.
+     * @return The current version, unique across restarts.
+     */
+    public String current() {
+        return jdbcTemplate.queryForObject("SELECT epoch, revision FROM catalog_revision WHERE id = 1",
+                (row, rowNum) -> row.getString(1) + "-" + row.getLong(2));
+    }
+
+    /**
+     * Raises the catalog version.
+     * Inside a transaction the version is raised as its last statement, right before it commits, so the version
+     * row is locked only while the write commits rather than for its whole length, and always after the catalog
+     * rows it changed. The raise commits together with the write, on the write's connection: raising it in a
+     * transaction of its own after the commit would hold a second connection per writer and can drain the pool.
+     */
+    public void bump() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    raise();
+                }
+            });
+        } else {
+            raise();
+        }
+    }
+
+    private void raise() {
+        jdbcTemplate.update("UPDATE catalog_revision SET revision = revision + 1 WHERE id = 1");
+    }
+}
@@ -1,25 +1,37 @@
 /**
  * Service class implementing functionality for managing courses.
  * Implements BaseService interface.
+ * Methods run in read-only transactions unless annotated otherwise, so with the replica profile all reads are
+ * served by the read replica and only the writes reach the primary.
  */
 package az.edu.ada.wm2.assignment1.service.impl;
 
+import az.edu.ada.wm2.assignment1.dto.CourseSummary;
+import az.edu.ada.wm2.assignment1.dto.KeysetPage;
 import az.edu.ada.wm2.assignment1.model.Course;
-import az.edu.ada.wm2.assignment1.model.Student;
 import az.edu.ada.wm2.assignment1.repository.CourseRepository;
-import az.edu.ada.wm2.assignment1.repository.StudentRepository;
+import az.edu.ada.wm2.assignment1.repository.EnrollmentRepository;
 import az.edu.ada.wm2.assignment1.service.BaseService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class CourseService implements BaseService<Course> {
 
     private final CourseRepository courseRepo;
-    private final StudentRepository studentRepo;
+    private final EnrollmentRepository enrollmentRepo;
+    private final CatalogVersion catalogVersion;
+    private final EnrollmentAnalytics analytics;
 
     /**
      * Retrieves a list of all courses.
@@ -31,12 +43,91 @@ public class CourseService implements BaseService<Course> {
     }
 
     /**
-     * Deletes a course by its ID.
+     * Retrieves the course catalog with the enrollment count of every course, read from the seat counters.
+     * Issues one query and never writes.
+     * @return A summary of every course.
+     */
+    public List<CourseSummary> listCatalog() {
+        return courseRepo.findCatalog();
+    }
+
+    /**
+     * Returns the entity tag of the pages built from the course catalog: the catalog itself and the lists of
+     * courses available to a student. Runs outside of any transaction and costs one primary key lookup.
+     * Marked read-only so that, with a read replica, the version comes from the same side as the page's data
+     * and never describes writes the replica has not received yet.
+     * @return The entity tag, which changes whenever a course, a seat counter or an enrollment changes.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public String getCatalogETag() {
+        return "catalog-" + catalogVersion.current();
+    }
+
+    /**
+     * Retrieves one keyset page of courses ordered by ID.
+     * @param afterId The ID of the last course on the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return The page of courses following afterId.
+     */
+    @Override
+    public KeysetPage<Course> listPage(Long afterId, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        List<Course> rows = courseRepo.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, Course::getId, null);
+    }
+
+    /**
+     * Retrieves one keyset page of course summaries ordered by ID, for the JSON API.
+     * @param afterId The ID of the last course on the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return The page of course summaries following afterId.
+     */
+    public KeysetPage<CourseSummary> listSummaries(Long afterId, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        List<CourseSummary> rows = courseRepo.findSummaries(afterId == null ? 0L : afterId, Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, CourseSummary::getId, null);
+    }
+
+    /**
+     * Retrieves the summary of a course, for the JSON API.
+     * @param id The ID of the course.
+     * @return The summary of the course, or empty if not found.
+     */
+    public Optional<CourseSummary> getSummary(Long id) {
+        return courseRepo.findSummaryById(id);
+    }
+
+    /**
+     * Retrieves one keyset page of the courses a student can still take, ordered by ID.
+     * @param studentId The ID of the student.
+     * @param afterId The ID of the last course on the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return The page of courses the student is not enrolled in, following afterId.
+     */
+    public KeysetPage<CourseSummary> listAvailableFor(Long studentId, Long afterId, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        List<CourseSummary> rows = courseRepo.findAvailableForStudent(studentId, afterId == null ? 0L : afterId,
+                Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, CourseSummary::getId, null);
+    }
+
+    /**
+     * Deletes a course by its ID together with its enrollments.
+     * Runs as a few set-based statements in one transaction, independent of the number of enrolled students,
+     * and takes the course's enrollments out of the analytics totals of its students. The course row is locked
+     * before any student row, in the order enrollments take them.
      * @param id The ID of the course to be deleted.
      */
     @Override
+    @Transactional
     public void deleteById(Long id) {
-        courseRepo.deleteById(id);
+        if (courseRepo.findForUpdateById(id).isEmpty()) {
+            return;
+        }
+        analytics.courseDeleting(id);
+        enrollmentRepo.deleteByCourseId(id);
+        courseRepo.deleteAllByIdInBatch(List.of(id));
+        catalogVersion.bump();
     }
 
     /**
@@ -52,25 +143,50 @@ public class CourseService implements BaseService<Course> {
 
     /**
      * Saves or updates a course.
+     * On update only the editable catalog fields are copied onto the stored course, so a submitted form
+     * can never overwrite the seat counter maintained by EnrollmentService. The course row is locked while it is
+     * loaded, so seats can not be taken or released until the update commits, and a credit change is carried over
+     * to the analytics credit totals of the enrolled students only after the course row is held.
      * @param entity The course object to be saved or updated.
+     * @throws IllegalArgumentException if the capacity is below the seats already taken.
      */
     @Override
+    @Transactional
     public void save(Course entity) {
-        courseRepo.save(entity);
+        Errors errors = new BeanPropertyBindingResult(entity, "course");
+        save(entity, errors);
+        if (errors.hasErrors()) {
+            throw new IllegalArgumentException(errors.getFieldError("capacity").getDefaultMessage());
+        }
     }
 
     /**
-     * Deletes all enrollments of a course.
-     * Removes the course from the list of courses for each student enrolled in it.
-     * @param courseId The ID of the course whose enrollments are to be deleted.
+     * Saves or updates a course, reporting a capacity below the seats already taken as a field error.
+     * The capacity is checked against the seat counter while the course row is locked, so no enrollment can
+     * take a seat between the check and the update, and a rejected update changes nothing.
+     * @param entity The course object to be saved or updated.
+     * @param errors The errors of the submitted course; a capacity error is added to them on rejection.
      */
-    public void deleteStudentsFromCourse(Long courseId) {
-        // Retrieve the course
-        Course course = getById(courseId);
-        // Remove the course from the list of courses for each student enrolled in it
-        for (Student student : course.getStudents()) {
-            student.getCourses().remove(course);
-            studentRepo.save(student);
+    @Transactional
+    public void save(Course entity, Errors errors) {
+        if (entity.getId() == null) {
+            entity.setNumberOfStudents(0);
+            courseRepo.save(entity);
+            catalogVersion.bump();
+            return;
+        }
+        Course course = courseRepo.findForUpdateById(entity.getId()).orElseThrow();
+        if (entity.getCapacity() < course.getNumberOfStudents()) {
+            errors.rejectValue("capacity", "capacity.belowEnrollment", new Object[]{course.getNumberOfStudents()},
+                    "must be at least the " + course.getNumberOfStudents() + " seats already taken");
+            return;
         }
+        catalogVersion.bump();
+        analytics.creditChanged(course.getId(), entity.getCredit() - course.getCredit());
+        course.setCourseName(entity.getCourseName());
+        course.setTeacherName(entity.getTeacherName());
+        course.setCourseDescription(entity.getCourseDescription());
+        course.setCredit(entity.getCredit());
+        course.setCapacity(entity.getCapacity());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,200 @@
+/**
+ * Service class implementing streaming CSV bulk import of students and courses.
+ * The file is read line by line and rows are committed in fixed-size batches, each in a transaction of its own,
+ * so heap usage stays bounded regardless of the file size and a database failure only costs its batch.
+ * A failed batch is retried row by row, so exactly the rows the database rejects are reported.
+ */
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import az.edu.ada.wm2.assignment1.dto.ImportReport;
+import az.edu.ada.wm2.assignment1.model.Course;
+import az.edu.ada.wm2.assignment1.model.Student;
+import az.edu.ada.wm2.assignment1.search.StudentSearchIndex;
+import az.edu.ada.wm2.assignment1.util.Csv;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+@Service
+@RequiredArgsConstructor
+public class CsvImportService {
+
+    /**
+     * Number of rows committed per transaction; matches hibernate.jdbc.batch_size.
+     */
+    private static final int BATCH_SIZE = 50;
+
+    private final StudentSearchIndex searchIndex;
+    private final CatalogVersion catalogVersion;
+    private final EnrollmentAnalytics analytics;
+    private final TransactionTemplate transactionTemplate;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Imports students from a CSV stream with the columns name, surname, major, date_of_birth (yyyy-MM-dd).
+     * A leading header row starting with "name" is skipped.
+     * @param in The CSV content.
+     * @param majors The accepted majors; rows with any other major are rejected.
+     * @return The import report.
+     * @throws IOException if the stream cannot be read.
+     */
+    public ImportReport importStudents(InputStream in, Collection<String> majors) throws IOException {
+        return importRows(in, new ImportReport("students"), "name", fields -> {
+            require(fields, 4);
+            String major = fields.get(2).trim();
+            if (!majors.contains(major)) {
+                throw new IllegalArgumentException("unknown major '" + major + "'");
+            }
+            return Student.builder()
+                    .name(requireText(fields.get(0), "name"))
+                    .surname(requireText(fields.get(1), "surname"))
+                    .major(major)
+                    .dateOfBirth(fields.get(3).isBlank() ? null : LocalDate.parse(fields.get(3).trim()))
+                    .build();
+        }, students -> analytics.studentsCreated(students.stream().map(Student::getId).toList()),
+                students -> students.forEach(searchIndex::index));
+    }
+
+    /**
+     * Imports courses from a CSV stream with the columns course_name, teacher_name, course_description, credit
+     * and an optional capacity. A leading header row starting with "course_name" is skipped.
+     * @param in The CSV content.
+     * @return The import report.
+     * @throws IOException if the stream cannot be read.
+     */
+    public ImportReport importCourses(InputStream in) throws IOException {
+        return importRows(in, new ImportReport("courses"), "course_name", fields -> {
+            require(fields, 4);
+            Course course = new Course();
+            course.setCourseName(requireText(fields.get(0), "course_name"));
+            course.setTeacherName(fields.get(1).trim());
+            course.setCourseDescription(fields.get(2).trim());
+            course.setCredit(Integer.parseInt(fields.get(3).trim()));
+            if (fields.size() > 4 && !fields.get(4).isBlank()) {
+                int capacity = Integer.parseInt(fields.get(4).trim());
+                if (capacity < 1) {
+                    throw new IllegalArgumentException("capacity must be at least 1 but is " + capacity);
+                }
+                course.setCapacity(capacity);
+            }
+            return course;
+        }, courses -> catalogVersion.bump(), courses -> { });
+    }
+
+    /**
+     * Reads the stream line by line, validates every row by mapping it to an entity and commits the valid rows
+     * in batches. Rows that fail to parse or validate are recorded in the report and skipped.
+     * @param in The CSV content.
+     * @param report The report to fill in.
+     * @param headerColumn The first column name of an optional header row.
+     * @param mapper Maps the fields of a row to a new entity, throwing IllegalArgumentException for invalid rows.
+     * @param inTransaction Runs in the transaction of every batch, after its entities have been inserted.
+     * @param afterCommit Runs with the entities of every batch once the batch has been committed.
+     * @return The filled-in report.
+     * @throws IOException if the stream cannot be read.
+     */
+    private <T> ImportReport importRows(InputStream in, ImportReport report, String headerColumn,
+                                        Function<List<String>, T> mapper, Consumer<List<T>> inTransaction,
+                                        Consumer<List<T>> afterCommit) throws IOException {
+        long start = System.nanoTime();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<Row> batch = new ArrayList<>(BATCH_SIZE);
+        long lineNumber = 0;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && line.trim().toLowerCase(Locale.ROOT).startsWith(headerColumn))) {
+                continue;
+            }
+            report.rowRead();
+            List<String> fields;
+            try {
+                fields = Csv.parseLine(line);
+                mapper.apply(fields);
+            } catch (IllegalArgumentException | DateTimeParseException e) {
+                report.rowFailed(lineNumber, e.getMessage());
+                continue;
+            }
+            batch.add(new Row(lineNumber, fields));
+            if (batch.size() == BATCH_SIZE) {
+                commit(batch, report, mapper, inTransaction, afterCommit);
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            commit(batch, report, mapper, inTransaction, afterCommit);
+        }
+        report.finished((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    /**
+     * Persists a batch of valid rows in one transaction. If the database rejects the batch, it is rolled back
+     * and every row is committed on its own, so the rows of the batch that the database accepts are still imported.
+     * The rows are mapped afresh for every attempt, as a rolled-back entity keeps the ID it was given.
+     * @param batch The rows, each of which maps to an entity without error.
+     * @param report The report to record the imported and rejected rows in.
+     */
+    private <T> void commit(List<Row> batch, ImportReport report, Function<List<String>, T> mapper,
+                            Consumer<List<T>> inTransaction, Consumer<List<T>> afterCommit) {
+        List<T> entities;
+        try {
+            entities = transactionTemplate.execute(status -> {
+                List<T> persisted = batch.stream().map(row -> mapper.apply(row.fields())).toList();
+                persisted.forEach(entityManager::persist);
+                entityManager.flush();
+                inTransaction.accept(persisted);
+                return persisted;
+            });
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) {
+                report.rowFailed(batch.get(0).lineNumber(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            } else {
+                batch.forEach(row -> commit(List.of(row), report, mapper, inTransaction, afterCommit));
+            }
+            return;
+        }
+        entities.forEach(entity -> report.rowImported());
+        afterCommit.accept(entities);
+    }
+
+    /**
+     * A valid data row of the file.
+     * @param lineNumber The 1-based line number in the file.
+     * @param fields The parsed fields.
+     */
+    private record Row(long lineNumber, List<String> fields) {
+    }
+
+    private static void require(List<String> fields, int count) {
+        if (fields.size() < count) {
+            throw new IllegalArgumentException("expected at least " + count + " columns but found " + fields.size());
+        }
+    }
+
+    private static String requireText(String value, String column) {
+        if (value.isBlank()) {
+            throw new IllegalArgumentException(column + " is empty");
+        }
+        return value.trim();
+    }
+}
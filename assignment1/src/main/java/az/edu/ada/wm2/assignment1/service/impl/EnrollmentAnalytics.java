@@ -0,0 +1,286 @@
+/**
+ * Service class maintaining and reporting the enrollment analytics: the course count and credit load of every
+ * student, the student count and average load of every major, and the fill rate of every course.
+ * The totals are running counters moved by the writing services inside their own transactions, each by the size of
+ * the write, so the analytics view reads the counters instead of aggregating the students and student_course tables.
+ * The per-student totals live in the students table, the per-major totals in major_stats, and the fill rates come
+ * from the seat counters EnrollmentService already maintains. The totals of a major are split into
+ * {@link MajorStatsStripe#STRIPES} stripe rows by student ID and summed when read, so concurrent enrollments of the
+ * major's students mostly update different rows instead of queueing on one.
+ * <p>
+ * Writes take the course row first, then the student, then the major stripe, in the order enrollments lock them,
+ * so a course update, course deletion or student deletion can not deadlock with enrollments.
+ * Bulk loads that write with plain JDBC, and any drift the counters may have picked up, are repaired by rebuild,
+ * which recomputes every counter from the base tables and reports what it found.
+ */
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import az.edu.ada.wm2.assignment1.dto.CourseFillRate;
+import az.edu.ada.wm2.assignment1.dto.MajorStats;
+import az.edu.ada.wm2.assignment1.model.MajorStatsStripe;
+import az.edu.ada.wm2.assignment1.repository.CourseRepository;
+import az.edu.ada.wm2.assignment1.repository.MajorStatsRepository;
+import az.edu.ada.wm2.assignment1.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class EnrollmentAnalytics {
+
+    /**
+     * Maximum number of IDs bound to one IN list.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * The major stripe of the student aliased s.
+     */
+    private static final String STRIPE = "MOD(s.id, " + MajorStatsStripe.STRIPES + ")";
+
+    /**
+     * The course count and credit total of every student with at least one enrollment, computed from the base tables.
+     */
+    private static final String ACTUAL_STUDENT_TOTALS = "SELECT sc.student_id, COUNT(*) AS courses, " +
+            "SUM(c.credit) AS credits FROM student_course sc JOIN courses c ON c.id = sc.course_id GROUP BY sc.student_id";
+
+    private final StudentRepository studentRepo;
+    private final MajorStatsRepository majorStatsRepo;
+    private final CourseRepository courseRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogCache catalogCache;
+    private final CatalogVersion catalogVersion;
+
+    /**
+     * Result of comparing the maintained counters with totals recomputed from the base tables.
+     * @param students The number of students checked.
+     * @param studentMismatches The number of students whose course count or credit total is off.
+     * @param majors The number of majors checked.
+     * @param majorMismatches The number of majors with a stripe that is off or missing.
+     * @param courses The number of courses checked.
+     * @param courseMismatches The number of courses whose seat counter is off.
+     */
+    public record Consistency(long students, long studentMismatches, long majors, long majorMismatches,
+                              long courses, long courseMismatches) {
+
+        /**
+         * @return true if every counter matches the base tables.
+         */
+        public boolean isConsistent() {
+            return studentMismatches == 0 && majorMismatches == 0 && courseMismatches == 0;
+        }
+    }
+
+    /**
+     * Retrieves the totals of every major, summed over its stripes.
+     * Reads major_stats only, at most {@link MajorStatsStripe#STRIPES} rows per major.
+     * @return The totals of every major with students, in alphabetical order.
+     */
+    public List<MajorStats> listMajors() {
+        return majorStatsRepo.findTotals();
+    }
+
+    /**
+     * Retrieves the fill rate of every course, read from the seat counters.
+     * @return The fill rate of every course, fullest course first.
+     */
+    public List<CourseFillRate> listFillRates() {
+        List<CourseFillRate> rows = new ArrayList<>(courseRepo.findFillRates());
+        rows.sort(Comparator.comparingDouble(CourseFillRate::fillRate).reversed());
+        return rows;
+    }
+
+    /**
+     * Counts newly created students in the totals of their majors. Students start without enrollments.
+     * @param ids The IDs of the students that have just been created.
+     */
+    @Transactional
+    public void studentsCreated(Collection<Long> ids) {
+        for (List<Long> chunk : chunks(ids)) {
+            majorStatsRepo.addStudents(chunk, 1);
+        }
+    }
+
+    /**
+     * Removes students, together with the enrollments their counters hold, from the totals of their majors.
+     * Must run after the students' courses have been locked and before the students are deleted; locks the
+     * students themselves, in ID order, before their majors' stripes.
+     * @param ids The IDs of the students about to be deleted.
+     */
+    @Transactional
+    public void studentsDeleting(Collection<Long> ids) {
+        List<List<Long>> chunks = chunks(ids.stream().sorted().toList());
+        for (List<Long> chunk : chunks) {
+            studentRepo.lockStudents(chunk);
+        }
+        for (List<Long> chunk : chunks) {
+            majorStatsRepo.addStudents(chunk, -1);
+        }
+    }
+
+    /**
+     * Adds one enrollment to the totals of the student and their major.
+     * @param studentId The ID of the student.
+     * @param courseId The ID of the course.
+     */
+    @Transactional
+    public void enrolled(Long studentId, Long courseId) {
+        studentRepo.addEnrollment(studentId, courseId, 1);
+        majorStatsRepo.addEnrollment(studentId, courseId, 1);
+    }
+
+    /**
+     * Removes one enrollment from the totals of the student and their major.
+     * @param studentId The ID of the student.
+     * @param courseId The ID of the course.
+     */
+    @Transactional
+    public void dropped(Long studentId, Long courseId) {
+        studentRepo.addEnrollment(studentId, courseId, -1);
+        majorStatsRepo.addEnrollment(studentId, courseId, -1);
+    }
+
+    /**
+     * Adds the enrollments of a set of newly enrolled students in one course to the totals,
+     * with one statement per table for every thousand students.
+     * @param courseId The ID of the course.
+     * @param studentIds The IDs of the students that have just been enrolled in the course.
+     */
+    @Transactional
+    public void enrolledAll(Long courseId, Collection<Long> studentIds) {
+        for (List<Long> chunk : chunks(studentIds)) {
+            studentRepo.addEnrollments(courseId, chunk);
+            majorStatsRepo.addEnrollments(courseId, chunk);
+        }
+    }
+
+    /**
+     * Moves the credit totals of the students enrolled in a course, and of their majors, by a change of its credit.
+     * Must run after the course row has been locked or updated.
+     * @param courseId The ID of the course.
+     * @param delta The new credit minus the old credit.
+     */
+    @Transactional
+    public void creditChanged(Long courseId, int delta) {
+        if (delta != 0) {
+            studentRepo.addCreditsIn(courseId, delta);
+            majorStatsRepo.addCreditsIn(courseId, delta);
+        }
+    }
+
+    /**
+     * Removes the enrollments in a course from the totals of its students and their majors.
+     * Must run after the course row has been locked and before the course's enrollments are deleted.
+     * @param courseId The ID of the course about to be deleted.
+     */
+    @Transactional
+    public void courseDeleting(Long courseId) {
+        studentRepo.removeEnrollmentsIn(courseId);
+        majorStatsRepo.removeEnrollmentsIn(courseId);
+    }
+
+    /**
+     * Compares every counter with totals recomputed from the base tables, without changing anything.
+     * Scans the students, courses and student_course tables, so it is meant for operators, not for page views.
+     * Runs in a read-write transaction, so it checks the primary rather than a read replica.
+     * @return The number of checked and of inconsistent students, majors and courses.
+     */
+    @Transactional
+    public Consistency verify() {
+        long students = count("SELECT COUNT(*) FROM students");
+        long studentMismatches = count("SELECT COUNT(*) FROM students s LEFT JOIN (" + ACTUAL_STUDENT_TOTALS + ") a " +
+                "ON a.student_id = s.id " +
+                "WHERE s.enrolled_courses <> COALESCE(a.courses, 0) OR s.enrolled_credits <> COALESCE(a.credits, 0)");
+        long courses = count("SELECT COUNT(*) FROM courses");
+        long courseMismatches = count("SELECT COUNT(*) FROM courses c WHERE c.number_of_students <> " +
+                "(SELECT COUNT(*) FROM student_course sc WHERE sc.course_id = c.id)");
+
+        Map<List<Object>, List<Long>> actual = new HashMap<>();
+        jdbcTemplate.query("SELECT s.major, " + STRIPE + ", COUNT(*), COALESCE(SUM(a.courses), 0), " +
+                        "COALESCE(SUM(a.credits), 0) FROM students s LEFT JOIN (" + ACTUAL_STUDENT_TOTALS + ") a " +
+                        "ON a.student_id = s.id WHERE s.major IS NOT NULL GROUP BY s.major, " + STRIPE,
+                rs -> {
+                    actual.put(List.of(rs.getString(1), rs.getInt(2)), List.of(rs.getLong(3), rs.getLong(4), rs.getLong(5)));
+                });
+        Set<String> majors = new HashSet<>();
+        Set<String> majorsOff = new HashSet<>();
+        for (MajorStatsStripe stripe : majorStatsRepo.findAll()) {
+            String major = stripe.getId().getMajor();
+            List<Long> stored = List.of(stripe.getStudents(), stripe.getEnrolledCourses(), stripe.getEnrolledCredits());
+            List<Long> expected = actual.remove(List.of(major, stripe.getId().getStripe()));
+            // A stripe whose last student was deleted keeps a row of zeros
+            if (!stored.equals(expected == null ? List.of(0L, 0L, 0L) : expected)) {
+                majorsOff.add(major);
+            }
+            majors.add(major);
+        }
+        actual.keySet().forEach(missing -> {
+            majors.add((String) missing.get(0));
+            majorsOff.add((String) missing.get(0));
+        });
+        return new Consistency(students, studentMismatches, majors.size(), majorsOff.size(), courses, courseMismatches);
+    }
+
+    /**
+     * Recomputes every counter from the base tables: the students' totals, the majors' stripes and the courses'
+     * seat counters. Locks every course row first, so enrollments, drops and course updates wait until the rebuild
+     * has committed and then move the rebuilt counters. The stripes are overwritten in place rather than deleted
+     * and inserted again, so a student created or deleted meanwhile waits for the stripe row and then moves the
+     * rebuilt totals.
+     * @return The consistency found before the rebuild, i.e. the drift that has been repaired.
+     */
+    @Transactional
+    public Consistency rebuild() {
+        jdbcTemplate.queryForList("SELECT id FROM courses FOR UPDATE");
+        Consistency before = verify();
+        jdbcTemplate.update("UPDATE students s SET " +
+                "enrolled_courses = (SELECT COUNT(*) FROM student_course sc WHERE sc.student_id = s.id), " +
+                "enrolled_credits = (SELECT COALESCE(SUM(c.credit), 0) FROM student_course sc " +
+                "JOIN courses c ON c.id = sc.course_id WHERE sc.student_id = s.id)");
+        jdbcTemplate.update("MERGE INTO major_stats m USING (SELECT s.major, " + STRIPE + " AS stripe, " +
+                "COUNT(*) AS students, SUM(s.enrolled_courses) AS courses, SUM(s.enrolled_credits) AS credits " +
+                "FROM students s WHERE s.major IS NOT NULL GROUP BY s.major, " + STRIPE + ") d " +
+                "ON m.major = d.major AND m.stripe = d.stripe " +
+                "WHEN MATCHED THEN UPDATE SET students = d.students, enrolled_courses = d.courses, " +
+                "enrolled_credits = d.credits " +
+                "WHEN NOT MATCHED THEN INSERT (major, stripe, students, enrolled_courses, enrolled_credits) " +
+                "VALUES (d.major, d.stripe, d.students, d.courses, d.credits)");
+        jdbcTemplate.update("UPDATE major_stats m SET students = 0, enrolled_courses = 0, enrolled_credits = 0 " +
+                "WHERE NOT EXISTS (SELECT 1 FROM students s WHERE s.major = m.major AND " + STRIPE + " = m.stripe)");
+        int courses = jdbcTemplate.update("UPDATE courses c SET version = version + 1, number_of_students = " +
+                "(SELECT COUNT(*) FROM student_course sc WHERE sc.course_id = c.id) WHERE c.number_of_students <> " +
+                "(SELECT COUNT(*) FROM student_course sc WHERE sc.course_id = c.id)");
+        if (courses > 0) {
+            // The JDBC update above bypasses Hibernate, so the cached counters and catalog are stale
+            catalogCache.evictAll();
+        }
+        catalogVersion.bump();
+        return before;
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class);
+        return count == null ? 0 : count;
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> list = List.copyOf(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+}
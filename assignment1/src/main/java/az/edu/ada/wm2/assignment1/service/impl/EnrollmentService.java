@@ -0,0 +1,315 @@
+/**
+ * Service class implementing enrollment of students into courses.
+ * Every enroll and drop is a single transaction that moves the enrollment row and the course seat counter together,
+ * using an atomic conditional UPDATE instead of a read-modify-write of Course.numberOfStudents.
+ * The same transaction moves the enrollment analytics totals of the student and their major.
+ */
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import az.edu.ada.wm2.assignment1.model.EnrollmentId;
+import az.edu.ada.wm2.assignment1.repository.CourseRepository;
+import az.edu.ada.wm2.assignment1.repository.EnrollmentRepository;
+import az.edu.ada.wm2.assignment1.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.interceptor.TransactionAspectSupport;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class EnrollmentService {
+
+    /**
+     * Outcome of an enrollment attempt.
+     */
+    public enum Result {
+        ENROLLED,
+        ALREADY_ENROLLED,
+        COURSE_FULL,
+        COURSE_NOT_FOUND,
+        STUDENT_NOT_FOUND
+    }
+
+    /**
+     * Number of enrollment rows sent to the database per JDBC batch.
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * Maximum number of IDs bound to one IN list.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    /**
+     * Outcome of a bulk enrollment, which either creates all of its enrollments or none.
+     * @param result ENROLLED if the enrollments have been created, COURSE_FULL or COURSE_NOT_FOUND if none has been.
+     * @param courseId The course that lacks the seats or does not exist, null on success.
+     * @param created The number of enrollments created.
+     */
+    public record BulkResult(Result result, Long courseId, int created) {
+    }
+
+    private final CourseRepository courseRepo;
+    private final EnrollmentRepository enrollmentRepo;
+    private final StudentRepository studentRepo;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final CatalogCache catalogCache;
+    private final CatalogVersion catalogVersion;
+    private final EnrollmentAnalytics analytics;
+
+    /**
+     * Enrolls a student in a course if the course has a free seat.
+     * An existing enrollment is detected with an indexed existence check before any seat is touched.
+     * The seat is then reserved, which locks the course row, so concurrent attempts on the same course
+     * are serialized until this transaction commits or rolls back.
+     * @param studentId The ID of the student.
+     * @param courseId The ID of the course.
+     * @return ENROLLED on success, COURSE_FULL if no seat is left, COURSE_NOT_FOUND if the course does not exist,
+     *         STUDENT_NOT_FOUND if the student does not exist, ALREADY_ENROLLED if the student already takes the course.
+     */
+    @Transactional
+    public Result enroll(Long studentId, Long courseId) {
+        if (enrollmentRepo.existsById(new EnrollmentId(studentId, courseId))) {
+            return Result.ALREADY_ENROLLED;
+        }
+        if (reserveSeat(courseId) == 0) {
+            // Only a refused seat pays for telling a full course from a missing one
+            return courseRepo.existsById(courseId) ? Result.COURSE_FULL : Result.COURSE_NOT_FOUND;
+        }
+        if (enrollmentRepo.insertIfAbsent(studentId, courseId) == 0) {
+            // The student does not exist, or a concurrent request enrolled them after the check;
+            // give the reserved seat back together with everything else in this transaction
+            TransactionAspectSupport.currentTransactionStatus().setRollbackOnly();
+            return studentRepo.existsById(studentId) ? Result.ALREADY_ENROLLED : Result.STUDENT_NOT_FOUND;
+        }
+        analytics.enrolled(studentId, courseId);
+        catalogVersion.bump();
+        return Result.ENROLLED;
+    }
+
+    /**
+     * Drops a course from a student's enrollments and frees the seat.
+     * @param studentId The ID of the student.
+     * @param courseId The ID of the course.
+     * @return true if the student was enrolled and has been dropped, false otherwise.
+     */
+    @Transactional
+    public boolean drop(Long studentId, Long courseId) {
+        if (enrollmentRepo.deleteOne(studentId, courseId) == 0) {
+            return false;
+        }
+        jdbcTemplate.update("UPDATE courses SET number_of_students = number_of_students - 1, version = version + 1 " +
+                "WHERE id = ? AND number_of_students > 0", courseId);
+        catalogCache.evictCourse(courseId);
+        analytics.dropped(studentId, courseId);
+        catalogVersion.bump();
+        return true;
+    }
+
+    /**
+     * Enrolls every given student in every given course in one transaction.
+     * The courses are locked in ID order first, as enroll and enrollBatch lock them, so their free seats and
+     * enrollments can not change until the transaction ends. Students already taking a course are skipped,
+     * and students that do not exist are ignored. Only when every course has the seats for its new students are
+     * the enrollment rows written with JDBC batch inserts and each course's seat counter moved by one batched UPDATE;
+     * otherwise nothing is written.
+     * @param studentIds The IDs of the students to enroll.
+     * @param courseIds The IDs of the courses to enroll them in.
+     * @return The number of enrollments created, or the first course that does not exist or lacks the seats.
+     */
+    @Transactional
+    public BulkResult enrollAll(Collection<Long> studentIds, Collection<Long> courseIds) {
+        Set<Long> courses = new TreeSet<>(courseIds);
+        if (courses.isEmpty() || studentIds.isEmpty()) {
+            return new BulkResult(Result.ENROLLED, null, 0);
+        }
+        Map<Long, Integer> freeSeats = lockCourses(courses);
+        Set<Long> students = new LinkedHashSet<>();
+        for (List<Long> chunk : chunks(new LinkedHashSet<>(studentIds))) {
+            students.addAll(namedJdbcTemplate.queryForList("SELECT id FROM students WHERE id IN (:ids)",
+                    Map.of("ids", chunk), Long.class));
+        }
+
+        Map<Long, List<Long>> added = new TreeMap<>();
+        for (Long courseId : courses) {
+            Integer free = freeSeats.get(courseId);
+            if (free == null) {
+                return new BulkResult(Result.COURSE_NOT_FOUND, courseId, 0);
+            }
+            Set<Long> enrolled = new HashSet<>();
+            for (List<Long> chunk : chunks(students)) {
+                enrolled.addAll(namedJdbcTemplate.queryForList("SELECT student_id FROM student_course " +
+                        "WHERE course_id = :courseId AND student_id IN (:ids)",
+                        Map.of("courseId", courseId, "ids", chunk), Long.class));
+            }
+            List<Long> newStudents = students.stream().filter(id -> !enrolled.contains(id)).toList();
+            if (newStudents.size() > free) {
+                return new BulkResult(Result.COURSE_FULL, courseId, 0);
+            }
+            if (!newStudents.isEmpty()) {
+                added.put(courseId, newStudents);
+            }
+        }
+        if (added.isEmpty()) {
+            return new BulkResult(Result.ENROLLED, null, 0);
+        }
+        return new BulkResult(Result.ENROLLED, null, write(added));
+    }
+
+    /**
+     * Applies a batch of single enrollment requests in one transaction, so the whole batch costs one commit.
+     * Seats are checked in one pass: the requested courses are locked in ID order, existing enrollments are read
+     * with one query per thousand students and courses, and every course then admits its requests in arrival order while it has
+     * free seats, with the same outcomes as enroll. The admitted enrollments and the seat counters are then written
+     * with one JDBC batch each.
+     * @param requests The requests in arrival order.
+     * @return The outcome of every request, in the same order.
+     */
+    @Transactional
+    public List<Result> enrollBatch(List<EnrollmentId> requests) {
+        List<Result> results = new ArrayList<>(Collections.nCopies(requests.size(), null));
+        if (requests.isEmpty()) {
+            return results;
+        }
+        Set<Long> courses = requests.stream().map(EnrollmentId::getCourseId).collect(Collectors.toCollection(TreeSet::new));
+        Map<Long, Integer> freeSeats = lockCourses(courses);
+        List<List<Long>> studentChunks = chunks(requests.stream().map(EnrollmentId::getStudentId)
+                .collect(Collectors.toSet()));
+        Set<Long> students = new HashSet<>();
+        Set<EnrollmentId> taken = new HashSet<>();
+        for (List<Long> studentChunk : studentChunks) {
+            students.addAll(namedJdbcTemplate.queryForList("SELECT id FROM students WHERE id IN (:students)",
+                    Map.of("students", studentChunk), Long.class));
+            for (List<Long> courseChunk : chunks(courses)) {
+                namedJdbcTemplate.query("SELECT student_id, course_id FROM student_course " +
+                        "WHERE student_id IN (:students) AND course_id IN (:courses)",
+                        Map.of("students", studentChunk, "courses", courseChunk), rs -> {
+                    taken.add(new EnrollmentId(rs.getLong(1), rs.getLong(2)));
+                });
+            }
+        }
+
+        Map<Long, List<Long>> admitted = new TreeMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            EnrollmentId request = requests.get(i);
+            Integer free = freeSeats.get(request.getCourseId());
+            if (!students.contains(request.getStudentId())) {
+                results.set(i, Result.STUDENT_NOT_FOUND);
+            } else if (free == null) {
+                results.set(i, Result.COURSE_NOT_FOUND);
+            } else if (taken.contains(request)) {
+                results.set(i, Result.ALREADY_ENROLLED);
+            } else if (free <= 0) {
+                results.set(i, Result.COURSE_FULL);
+            } else {
+                taken.add(request);
+                freeSeats.put(request.getCourseId(), free - 1);
+                admitted.computeIfAbsent(request.getCourseId(), course -> new ArrayList<>()).add(request.getStudentId());
+                results.set(i, Result.ENROLLED);
+            }
+        }
+        if (admitted.isEmpty()) {
+            return results;
+        }
+        write(admitted);
+        return results;
+    }
+
+    /**
+     * Enrolls every student of a major in every given course in one transaction.
+     * @param major The major whose students are enrolled.
+     * @param courseIds The IDs of the courses to enroll them in.
+     * @return The number of enrollments created, or the first course that does not exist or lacks the seats.
+     */
+    @Transactional
+    public BulkResult enrollMajor(String major, Collection<Long> courseIds) {
+        return enrollAll(studentRepo.findIdsByMajor(major), courseIds);
+    }
+
+    /**
+     * Atomically takes one seat in a course if it still has free capacity, raising the course version.
+     * The conditional UPDATE holds the course row lock until the surrounding transaction ends,
+     * so concurrent enrollments into the same course are serialized and never overbook it.
+     * It runs through JDBC, so only this course is evicted from the second-level cache.
+     * @param courseId The ID of the course.
+     * @return 1 if a seat was taken, 0 if the course is full or does not exist.
+     */
+    private int reserveSeat(Long courseId) {
+        int reserved = jdbcTemplate.update("UPDATE courses SET number_of_students = number_of_students + 1, " +
+                "version = version + 1 WHERE id = ? AND number_of_students < capacity", courseId);
+        if (reserved > 0) {
+            catalogCache.evictCourse(courseId);
+        }
+        return reserved;
+    }
+
+    /**
+     * Locks the rows of the given courses in ID order and reads their free seats.
+     * Every multi-course write locks its courses this way before touching students or enrollments,
+     * so two of them can never wait for each other's course rows. Binds at most a thousand IDs per query;
+     * the chunks follow each other in ID order, so the locks are still taken in ID order.
+     * @param courseIds The IDs of the courses.
+     * @return The free seats of every course that exists.
+     */
+    private Map<Long, Integer> lockCourses(Collection<Long> courseIds) {
+        Map<Long, Integer> freeSeats = new HashMap<>();
+        for (List<Long> chunk : chunks(new TreeSet<>(courseIds))) {
+            namedJdbcTemplate.query("SELECT id, capacity - number_of_students FROM courses WHERE id IN (:courses) " +
+                    "ORDER BY id FOR UPDATE", Map.of("courses", chunk), rs -> {
+                freeSeats.put(rs.getLong(1), rs.getInt(2));
+            });
+        }
+        return freeSeats;
+    }
+
+    /**
+     * Writes new enrollments into courses locked by lockCourses, whose free seats have been checked.
+     * @param admitted The IDs of the new students of every course, in course ID order.
+     * @return The number of enrollments written.
+     */
+    private int write(Map<Long, List<Long>> admitted) {
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> seats = new ArrayList<>();
+        admitted.forEach((courseId, studentIds) -> {
+            studentIds.forEach(studentId -> rows.add(new Object[]{studentId, courseId}));
+            seats.add(new Object[]{studentIds.size(), courseId});
+        });
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate("INSERT INTO student_course (student_id, course_id, enrolled_at) " +
+                    "VALUES (?, ?, CURRENT_TIMESTAMP)", rows.subList(from, Math.min(from + BATCH_SIZE, rows.size())));
+        }
+        // The course rows are locked and their free seats counted, so the counters need no capacity check
+        jdbcTemplate.batchUpdate("UPDATE courses SET number_of_students = number_of_students + ?, " +
+                "version = version + 1 WHERE id = ?", seats);
+        admitted.forEach(analytics::enrolledAll);
+        // The JDBC writes above bypass Hibernate, so the cached counters and catalog are stale
+        catalogCache.evict(admitted.keySet());
+        catalogVersion.bump();
+        return rows.size();
+    }
+
+    private static List<List<Long>> chunks(Collection<Long> ids) {
+        List<Long> list = List.copyOf(ids);
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += CHUNK_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + CHUNK_SIZE, list.size())));
+        }
+        return chunks;
+    }
+}
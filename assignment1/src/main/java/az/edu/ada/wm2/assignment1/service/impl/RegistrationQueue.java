@@ -0,0 +1,251 @@
+/**
+ * Bounded in-memory queue of enrollment requests for registration rushes, applied with group commit.
+ * Accepting a request only puts it in the queue and hands out a ticket; a single worker thread drains whatever has
+ * queued up, up to batchSize requests, and applies it through EnrollmentService.enrollBatch in one transaction.
+ * While one batch commits the next one fills, so under load every commit carries many enrollments and the rush
+ * holds one database connection instead of one per waiting request. A full queue turns requests away at once
+ * rather than letting them wait for a connection.
+ * <p>
+ * Tickets are kept for ticketRetention after their last change and are lost on restart, together with the
+ * requests still waiting in the queue. A batch that fails in an unexpected way, or is still waiting when the
+ * queue closes, fails its tickets rather than leaving them queued forever.
+ */
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import az.edu.ada.wm2.assignment1.dto.RegistrationTicket;
+import az.edu.ada.wm2.assignment1.model.EnrollmentId;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+public class RegistrationQueue implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrationQueue.class);
+
+    /**
+     * How long close waits for the batch in progress to be applied.
+     */
+    private static final Duration SHUTDOWN_WAIT = Duration.ofSeconds(10);
+
+    /**
+     * A queued request and the future completed with its final ticket.
+     */
+    private record Pending(RegistrationTicket ticket, CompletableFuture<RegistrationTicket> done) {
+    }
+
+    private final EnrollmentService enrollmentService;
+    private final boolean queued;
+    private final int batchSize;
+    private final BlockingQueue<Pending> queue;
+    private final Cache<String, RegistrationTicket> tickets;
+    private final Map<String, CompletableFuture<RegistrationTicket>> waiting = new ConcurrentHashMap<>();
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+    private final Thread worker = new Thread(this::drain, "registration-queue");
+
+    /**
+     * Constructor for RegistrationQueue.
+     * @param enrollmentService The service applying the batches.
+     * @param queued Whether the "Take" button of the course pages goes through the queue.
+     * @param capacity The maximum number of requests waiting in the queue.
+     * @param batchSize The maximum number of requests applied in one transaction.
+     * @param ticketRetention How long a ticket can be polled after its last change.
+     * @param meterRegistry The registry the queue depth, batch sizes and rejections are recorded in.
+     */
+    public RegistrationQueue(EnrollmentService enrollmentService, boolean queued, int capacity, int batchSize,
+                             Duration ticketRetention, MeterRegistry meterRegistry) {
+        this.enrollmentService = enrollmentService;
+        this.queued = queued;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.tickets = Caffeine.newBuilder()
+                .expireAfterWrite(ticketRetention)
+                .build();
+        this.worker.setDaemon(true);
+        Gauge.builder("app.registration.queue.depth", queue, BlockingQueue::size)
+                .description("Enrollment requests waiting in the registration queue")
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("app.registration.batch.size")
+                .description("Enrollment requests applied per transaction")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("app.registration.rejected")
+                .description("Enrollment requests turned away because the registration queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts the worker thread that applies the queued requests.
+     */
+    public void start() {
+        worker.start();
+    }
+
+    /**
+     * Tells whether the course pages enroll through the queue rather than synchronously.
+     * @return true in registration-rush mode.
+     */
+    public boolean isQueued() {
+        return queued;
+    }
+
+    /**
+     * Queues an enrollment request.
+     * @param studentId The ID of the student.
+     * @param courseId The ID of the course.
+     * @return The ticket of the request, or empty if the queue is full.
+     */
+    public Optional<RegistrationTicket> submit(Long studentId, Long courseId) {
+        RegistrationTicket ticket = new RegistrationTicket(UUID.randomUUID().toString(), studentId, courseId,
+                RegistrationTicket.Status.QUEUED, Instant.now());
+        CompletableFuture<RegistrationTicket> done = new CompletableFuture<>();
+        tickets.put(ticket.id(), ticket);
+        waiting.put(ticket.id(), done);
+        if (!queue.offer(new Pending(ticket, done))) {
+            tickets.invalidate(ticket.id());
+            waiting.remove(ticket.id());
+            rejected.increment();
+            return Optional.empty();
+        }
+        return Optional.of(ticket);
+    }
+
+    /**
+     * Looks up a ticket.
+     * @param id The ID of the ticket.
+     * @return The current state of the ticket, or empty if it is unknown or has expired.
+     */
+    public Optional<RegistrationTicket> find(String id) {
+        return Optional.ofNullable(tickets.getIfPresent(id));
+    }
+
+    /**
+     * Waits for a request's batch to be applied.
+     * @param id The ID of the ticket.
+     * @param timeout The longest time to wait.
+     * @return The state of the ticket once done or after the timeout, or empty if it is unknown or has expired.
+     */
+    public Optional<RegistrationTicket> await(String id, Duration timeout) {
+        CompletableFuture<RegistrationTicket> done = waiting.get(id);
+        if (done != null) {
+            try {
+                return Optional.of(done.get(timeout.toNanos(), TimeUnit.NANOSECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (TimeoutException | ExecutionException e) {
+                // Still queued; report the current state
+            }
+        }
+        return find(id);
+    }
+
+    /**
+     * Stops the worker, waiting up to SHUTDOWN_WAIT for the batch in progress, and fails the requests still queued.
+     */
+    @Override
+    public void close() {
+        worker.interrupt();
+        try {
+            worker.join(SHUTDOWN_WAIT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            log.warn("Registration queue worker did not stop within {}", SHUTDOWN_WAIT);
+        }
+        List<Pending> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> complete(pending, RegistrationTicket.Status.FAILED));
+    }
+
+    private void drain() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            queue.drainTo(batch, batchSize - 1);
+            try {
+                apply(batch);
+            } catch (Throwable e) {
+                // Keep the worker alive for the next batch; nobody would complete these tickets otherwise
+                log.error("Registration batch of {} requests could not be applied", batch.size(), e);
+                batch.stream()
+                        .filter(pending -> !pending.done().isDone())
+                        .forEach(pending -> complete(pending, RegistrationTicket.Status.FAILED));
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Applies a batch in one transaction. If the transaction fails, e.g. on a deadlock, the batch is retried
+     * request by request, so one bad request can not fail the others.
+     */
+    private void apply(List<Pending> batch) {
+        List<EnrollmentId> requests = batch.stream()
+                .map(pending -> new EnrollmentId(pending.ticket().studentId(), pending.ticket().courseId()))
+                .toList();
+        List<EnrollmentService.Result> results;
+        try {
+            results = enrollmentService.enrollBatch(requests);
+        } catch (RuntimeException e) {
+            log.warn("Registration batch of {} requests failed; applying them one by one", batch.size(), e);
+            results = requests.stream().map(this::enrollAlone).toList();
+        }
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), status(results.get(i)));
+        }
+    }
+
+    private EnrollmentService.Result enrollAlone(EnrollmentId request) {
+        try {
+            return enrollmentService.enroll(request.getStudentId(), request.getCourseId());
+        } catch (RuntimeException e) {
+            log.debug("Enrollment of student {} in course {} failed", request.getStudentId(), request.getCourseId(), e);
+            return null;
+        }
+    }
+
+    private static RegistrationTicket.Status status(EnrollmentService.Result result) {
+        if (result == null) {
+            return RegistrationTicket.Status.FAILED;
+        }
+        return switch (result) {
+            case ENROLLED -> RegistrationTicket.Status.ENROLLED;
+            case ALREADY_ENROLLED -> RegistrationTicket.Status.ALREADY_ENROLLED;
+            case COURSE_FULL -> RegistrationTicket.Status.COURSE_FULL;
+            case COURSE_NOT_FOUND -> RegistrationTicket.Status.COURSE_NOT_FOUND;
+            case STUDENT_NOT_FOUND -> RegistrationTicket.Status.STUDENT_NOT_FOUND;
+        };
+    }
+
+    private void complete(Pending pending, RegistrationTicket.Status status) {
+        RegistrationTicket ticket = pending.ticket().withStatus(status);
+        tickets.put(ticket.id(), ticket);
+        waiting.remove(ticket.id());
+        pending.done().complete(ticket);
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ * Service class implementing the streaming export of students with their enrollments.
+ * Rows are written to the output as they are read from the database cursor, so memory use stays constant
+ * no matter how many students are exported.
+ */
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import az.edu.ada.wm2.assignment1.dto.StudentEnrollmentRow;
+import az.edu.ada.wm2.assignment1.repository.StudentRepository;
+import az.edu.ada.wm2.assignment1.util.Csv;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+@Service
+@RequiredArgsConstructor
+public class StudentExportService {
+
+    private final StudentRepository studentRepo;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Writes one CSV line per enrollment (and one per student without enrollments) with the columns
+     * student_id, name, surname, major, date_of_birth, course_id, course_name, credit, enrolled_at.
+     * @param out The stream to write to; flushed but not closed.
+     * @throws IOException if writing fails.
+     */
+    @Transactional(readOnly = true)
+    public void exportCsv(OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("student_id,name,surname,major,date_of_birth,course_id,course_name,credit,enrolled_at\n");
+        try (Stream<StudentEnrollmentRow> rows = studentRepo.streamEnrollmentRows()) {
+            rows.forEach(row -> {
+                try {
+                    writer.write(Csv.escape(row.getStudentId()) + ',' + Csv.escape(row.getName()) + ','
+                            + Csv.escape(row.getSurname()) + ',' + Csv.escape(row.getMajor()) + ','
+                            + Csv.escape(row.getDateOfBirth()) + ',' + Csv.escape(row.getCourseId()) + ','
+                            + Csv.escape(row.getCourseName()) + ',' + Csv.escape(row.getCredit()) + ','
+                            + Csv.escape(row.getEnrolledAt()) + '\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        writer.flush();
+    }
+
+    /**
+     * Writes one JSON object per line for every student, with their courses nested in a "courses" array.
+     * Relies on the export query returning the rows of one student consecutively.
+     * @param out The stream to write to; flushed but not closed.
+     * @throws IOException if writing fails.
+     */
+    @Transactional(readOnly = true)
+    public void exportNdjson(OutputStream out) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Objects are separated by the newline written after each one, not by Jackson's default space
+        json.setRootValueSeparator(null);
+        try (Stream<StudentEnrollmentRow> rows = studentRepo.streamEnrollmentRows()) {
+            Long currentId = null;
+            Iterator<StudentEnrollmentRow> it = rows.iterator();
+            while (it.hasNext()) {
+                StudentEnrollmentRow row = it.next();
+                if (!row.getStudentId().equals(currentId)) {
+                    if (currentId != null) {
+                        endStudent(json);
+                    }
+                    currentId = row.getStudentId();
+                    json.writeStartObject();
+                    json.writeNumberField("id", row.getStudentId());
+                    json.writeStringField("name", row.getName());
+                    json.writeStringField("surname", row.getSurname());
+                    json.writeStringField("major", row.getMajor());
+                    json.writeStringField("dateOfBirth", row.getDateOfBirth() == null ? null : row.getDateOfBirth().toString());
+                    json.writeArrayFieldStart("courses");
+                }
+                if (row.getCourseId() != null) {
+                    json.writeStartObject();
+                    json.writeNumberField("id", row.getCourseId());
+                    json.writeStringField("courseName", row.getCourseName());
+                    json.writeNumberField("credit", row.getCredit());
+                    json.writeStringField("enrolledAt", row.getEnrolledAt() == null ? null : row.getEnrolledAt().toString());
+                    json.writeEndObject();
+                }
+            }
+            if (currentId != null) {
+                endStudent(json);
+            }
+        }
+        json.flush();
+    }
+
+    private static void endStudent(JsonGenerator json) throws IOException {
+        json.writeEndArray();
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+}
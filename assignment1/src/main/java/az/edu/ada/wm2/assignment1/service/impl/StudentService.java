@@ -1,23 +1,55 @@
 /**
  * Service class implementing functionality for managing students.
  * Implements BaseService interface.
+ * Methods run in read-only transactions unless annotated otherwise, so with the replica profile all reads are
+ * served by the read replica and only the writes reach the primary.
  */
 package az.edu.ada.wm2.assignment1.service.impl;
 
+import az.edu.ada.wm2.assignment1.dto.EnrollmentSummary;
+import az.edu.ada.wm2.assignment1.dto.KeysetPage;
+import az.edu.ada.wm2.assignment1.dto.SearchPage;
+import az.edu.ada.wm2.assignment1.dto.StudentSummary;
 import az.edu.ada.wm2.assignment1.model.Student;
+import az.edu.ada.wm2.assignment1.repository.EnrollmentRepository;
 import az.edu.ada.wm2.assignment1.repository.StudentRepository;
+import az.edu.ada.wm2.assignment1.search.StudentSearchIndex;
 import az.edu.ada.wm2.assignment1.service.BaseService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class StudentService implements BaseService<Student> {
 
+    /**
+     * Properties the student listing may be sorted by, with the accessor of each property's cursor value.
+     */
+    private static final Map<String, Function<Student, String>> SORT_KEYS = Map.of(
+            "name", Student::getName,
+            "surname", Student::getSurname,
+            "major", Student::getMajor);
+
     private final StudentRepository studentRepo;
+    private final EnrollmentRepository enrollmentRepo;
+    private final StudentSearchIndex searchIndex;
+    private final CatalogVersion catalogVersion;
+    private final EnrollmentAnalytics analytics;
 
     /**
      * Retrieves a list of all students.
@@ -29,12 +61,98 @@ public class StudentService implements BaseService<Student> {
     }
 
     /**
-     * Deletes a student by their ID.
+     * Retrieves one keyset page of students ordered by ID.
+     * @param afterId The ID of the last student on the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return The page of students following afterId.
+     */
+    @Override
+    public KeysetPage<Student> listPage(Long afterId, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        List<Student> rows = studentRepo.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, Student::getId, null);
+    }
+
+    /**
+     * Retrieves one keyset page of student summaries ordered by ID, for the JSON API.
+     * @param afterId The ID of the last student on the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return The page of student summaries following afterId.
+     */
+    public KeysetPage<StudentSummary> listSummaries(Long afterId, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        List<StudentSummary> rows = studentRepo.findSummaries(afterId == null ? 0L : afterId, Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, StudentSummary::id, null);
+    }
+
+    /**
+     * Retrieves the summary of a student, for the JSON API.
+     * @param id The ID of the student.
+     * @return The summary of the student, or empty if not found.
+     */
+    public Optional<StudentSummary> getSummary(Long id) {
+        return studentRepo.findSummaryById(id);
+    }
+
+    /**
+     * Retrieves one keyset page of a student's enrollments ordered by course ID, for the JSON API.
+     * @param studentId The ID of the student.
+     * @param afterId The ID of the last course on the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return The page of enrollments following afterId.
+     */
+    public KeysetPage<EnrollmentSummary> listEnrollments(Long studentId, Long afterId, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        List<EnrollmentSummary> rows = enrollmentRepo.findSummariesByStudent(studentId, afterId == null ? 0L : afterId,
+                Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, EnrollmentSummary::courseId, null);
+    }
+
+    /**
+     * Retrieves one keyset page of summaries of the students enrolled in a course, ordered by ID, for the JSON API.
+     * @param courseId The ID of the course.
+     * @param afterId The ID of the last student on the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return The page of enrolled students following afterId.
+     */
+    public KeysetPage<StudentSummary> listSummariesByCourse(Long courseId, Long afterId, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        List<StudentSummary> rows = studentRepo.findSummariesByCourse(courseId, afterId == null ? 0L : afterId,
+                Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, StudentSummary::id, null);
+    }
+
+    /**
+     * Deletes a student by their ID, dropping their enrollments and freeing their seats.
      * @param id The ID of the student to be deleted.
      */
     @Override
+    @Transactional
     public void deleteById(Long id) {
-        studentRepo.deleteById(id);
+        deleteAllById(List.of(id));
+    }
+
+    /**
+     * Deletes a set of students, dropping their enrollments and freeing their seats.
+     * Runs as a few set-based statements in one transaction, independent of the number of students and enrollments,
+     * and takes the students and their enrollments out of the analytics totals of their majors.
+     * The students' courses are locked first, in ID order, as enrollments lock them.
+     * @param ids The IDs of the students to be deleted.
+     */
+    @Transactional
+    public void deleteAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        List<Long> courseIds = studentRepo.lockCoursesOfStudents(ids);
+        if (!courseIds.isEmpty()) {
+            studentRepo.releaseSeatsOfStudents(courseIds, ids);
+        }
+        analytics.studentsDeleting(ids);
+        enrollmentRepo.deleteByStudentIds(ids);
+        studentRepo.deleteAllByIdInBatch(ids);
+        afterCommit(() -> ids.forEach(searchIndex::remove));
+        catalogVersion.bump();
     }
 
     /**
@@ -48,13 +166,68 @@ public class StudentService implements BaseService<Student> {
         return studentRepo.findById(id).orElseThrow();
     }
 
+    /**
+     * Retrieves a student together with their enrollments and courses, loaded in one statement,
+     * so the student detail page can be rendered after the persistence context is closed.
+     * @param id The ID of the student to be retrieved.
+     * @return The student with the specified ID and their courses.
+     * @throws RuntimeException if the student with the specified ID is not found.
+     */
+    public Student getWithCoursesById(Long id) {
+        return studentRepo.findWithCoursesById(id).orElseThrow();
+    }
+
+    /**
+     * Returns the entity tag of a student's detail page, made of the student's version and the catalog version,
+     * which covers the student's enrollments and the courses they link to. Costs two primary key lookups.
+     * Also tags the page of courses the student can still take, which the same versions cover.
+     * @param id The ID of the student.
+     * @return The entity tag, or empty if the student does not exist.
+     */
+    public Optional<String> getInfoETag(Long id) {
+        String catalog = catalogVersion.current();
+        return studentRepo.findVersionById(id).map(version -> "student-" + id + "." + version + "-" + catalog);
+    }
+
     /**
      * Saves or updates a student.
+     * On update only the fields of the update form are copied onto the stored student,
+     * so the major and the enrollments are never overwritten by a submitted form.
+     * A new student is inserted right away and counted in the analytics totals of their major.
+     * The search index follows once the transaction has committed, so it never shows a rolled-back change.
      * @param entity The student object to be saved or updated.
      */
     @Override
+    @Transactional
     public void save(Student entity) {
-        studentRepo.save(entity);
+        if (entity.getId() == null) {
+            Student student = studentRepo.saveAndFlush(entity);
+            analytics.studentsCreated(List.of(student.getId()));
+            afterCommit(() -> searchIndex.index(student));
+            return;
+        }
+        Student student = getById(entity.getId());
+        student.setName(entity.getName());
+        student.setSurname(entity.getSurname());
+        student.setDateOfBirth(entity.getDateOfBirth());
+        afterCommit(() -> searchIndex.index(student));
+    }
+
+    /**
+     * Runs an action once the current transaction has committed, or right away outside of a transaction.
+     * @param action The action to run.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
     }
 
     /**
@@ -66,6 +239,41 @@ public class StudentService implements BaseService<Student> {
         return studentRepo.findByNameContainingIgnoreCase(name);
     }
 
+    /**
+     * Finds one keyset page of students by name, ignoring case.
+     * @param name The name to search for.
+     * @param afterId The ID of the last student on the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return The page of matching students following afterId.
+     */
+    public KeysetPage<Student> findByNameIgnoreCase(String name, Long afterId, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        List<Student> rows = studentRepo.findByNameContainingIgnoreCaseAndIdGreaterThanOrderByIdAsc(
+                name, afterId == null ? 0L : afterId, Limit.of(pageSize + 1));
+        return KeysetPage.of(rows, pageSize, Student::getId, null);
+    }
+
+    /**
+     * Searches students by name, surname and major through the in-memory search index.
+     * Every whitespace-separated word of the query must match one of the fields; results are ranked by match quality.
+     * @param query The search query.
+     * @param offset The number of results to skip, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return The page of matching students, best match first.
+     */
+    public SearchPage<Student> search(String query, Integer offset, Integer size) {
+        int pageSize = KeysetPage.clampSize(size);
+        int start = offset == null ? 0 : Math.max(offset, 0);
+        StudentSearchIndex.Hits hits = searchIndex.search(query, start, pageSize);
+        Map<Long, Student> byId = studentRepo.findAllById(hits.ids()).stream()
+                .collect(Collectors.toMap(Student::getId, Function.identity()));
+        List<Student> students = hits.ids().stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new SearchPage<>(students, start, pageSize, hits.total());
+    }
+
     /**
      * Finds students by major.
      * @param major The major to search for.
@@ -85,19 +293,27 @@ public class StudentService implements BaseService<Student> {
     }
 
     /**
-     * Sorts students by a specified property.
-     * @param isAsc Boolean indicating whether to sort in ascending order.
+     * Retrieves one keyset page of students sorted by a whitelisted property, with the ID as a tiebreaker.
+     * Each sortable property has a (property, id) index, so a page is an index range scan rather than a full sort.
+     * Unknown properties fall back to the ID-ordered listing.
+     * @param direction The sort direction.
      * @param property The property by which to sort (name, surname, major).
-     * @return A list of students sorted by the specified property.
-     */
-    public List<Student> sortStudentByProperty(boolean isAsc,String property){
-        return switch (property) {
-            case "name" -> isAsc ? studentRepo.findByNameOrderByNameAsc() : studentRepo.findByNameOrderByNameDesc();
-            case "surname" ->
-                    isAsc ? studentRepo.findBySurnameOrderBySurnameAsc() : studentRepo.findBySurnameOrderBySurnameDesc();
-            case "major" ->
-                    isAsc ? studentRepo.findByMajorOrderByMajorAsc() : studentRepo.findByMajorOrderByMajorDesc();
-            default -> list();
-        };
-    }
-}
\ No newline at end of file
+     * Students without a value for the property come first in ascending and last in descending order.
+     * @param afterKey The property value of the last student on the previous page, or null for the first page.
+     * @param afterKeyNull Whether the property value of the last student on the previous page was null.
+     * @param afterId The ID of the last student on the previous page, or null for the first page.
+     * @param size The requested page size, or null for the default.
+     * @return The page of students following (afterKey, afterId) in the requested order.
+     */
+    public KeysetPage<Student> sortStudentByProperty(Sort.Direction direction, String property, String afterKey,
+                                                     boolean afterKeyNull, Long afterId, Integer size) {
+        Function<Student, String> sortKey = SORT_KEYS.get(property);
+        if (sortKey == null) {
+            return listPage(afterId, size);
+        }
+        int pageSize = KeysetPage.clampSize(size);
+        List<Student> rows = studentRepo.findSortedPage(new Sort.Order(direction, property), afterKey, afterKeyNull, afterId,
+                pageSize + 1);
+        return KeysetPage.of(rows, pageSize, Student::getId, sortKey);
+    }
+}
@@ -0,0 +1,213 @@
+/**
+ * Service class generating a synthetic, reproducible data set of realistic size for load and performance tests.
+ * The same seed and sizes always produce the same students, courses and enrollments. Rows are written with
+ * JDBC batch inserts using explicit IDs above the current maximum, and the sequences are moved past them
+ * afterwards, so the generated data can be added to a running database.
+ */
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.SplittableRandom;
+
+@Service
+@RequiredArgsConstructor
+public class SyntheticDataGenerator {
+
+    /**
+     * Number of rows sent to the database per JDBC batch.
+     */
+    private static final int BATCH_SIZE = 5000;
+
+    private static final String[] NAMES = {"Ravan", "Kimse", "Aysel", "Murad", "Leyla", "Nigar", "Farid", "Kamran",
+            "Sabina", "Orkhan", "Elvin", "Gunel", "Rashad", "Aynur", "Tural", "Samira", "Elchin", "Lala", "Vugar", "Narmin"};
+    private static final String[] SURNAMES = {"Mammadov", "Aliyev", "Huseynov", "Quliyeva", "Hasanov", "Ismayilova",
+            "Abbasov", "Karimli", "Rzayev", "Jafarova", "Guliyev", "Babayeva", "Nasirov", "Mustafayeva", "Safarov"};
+    private static final String[] MAJORS = {"Computer Science", "Computer Engineering", "Information Technology",
+            "Electrical Engineering", "Mathematics", "Law", "Finance", "Business Administration"};
+    private static final String[] SUBJECTS = {"Algorithms", "Databases", "Networks", "Calculus", "Statistics",
+            "Contract Law", "Accounting", "Marketing", "Circuits", "Operating Systems", "Compilers", "Economics"};
+    private static final LocalDate OLDEST_BIRTH_DATE = LocalDate.of(1995, 1, 1);
+    private static final LocalDateTime FIRST_ENROLLMENT = LocalDateTime.of(2024, 9, 1, 8, 0);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogCache catalogCache;
+    private final CatalogVersion catalogVersion;
+    private final EnrollmentAnalytics analytics;
+
+    /**
+     * Sizes and timing of a generated data set.
+     * @param students The number of generated students.
+     * @param courses The number of generated courses.
+     * @param enrollments The number of generated enrollments.
+     * @param checksum A hash over the generated values, equal for equal seeds and sizes.
+     * @param elapsedMillis The time taken to write the data.
+     */
+    public record Summary(int students, int courses, long enrollments, long checksum, long elapsedMillis) {
+    }
+
+    /**
+     * Generates students, courses and enrollments.
+     * Every student takes coursesPerStudent distinct courses chosen uniformly at random; course capacities are
+     * twice the expected enrollment, raised if needed so that every seat counter stays within its capacity.
+     * @param seed The random seed.
+     * @param students The number of students to generate.
+     * @param courses The number of courses to generate.
+     * @param coursesPerStudent The number of courses every student is enrolled in, at most courses.
+     * @return The summary of the generated data.
+     */
+    public Summary generate(long seed, int students, int courses, int coursesPerStudent) {
+        if (coursesPerStudent > courses) {
+            throw new IllegalArgumentException("coursesPerStudent must not exceed courses");
+        }
+        long start = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(seed);
+        long firstCourseId = nextId("courses", "courses_seq");
+        long firstStudentId = nextId("students", "students_seq");
+        int capacity = Math.max(30, (int) (2L * students * coursesPerStudent / Math.max(courses, 1)));
+        long[] checksum = {seed};
+
+        String[][] courseRows = new String[courses][];
+        int[] credits = new int[courses];
+        for (int i = 0; i < courses; i++) {
+            String subject = SUBJECTS[random.nextInt(SUBJECTS.length)];
+            courseRows[i] = new String[]{subject + " " + (100 + i), SURNAMES[random.nextInt(SURNAMES.length)],
+                    "Synthetic course on " + subject};
+            credits[i] = 2 + random.nextInt(5);
+            checksum[0] = 31 * checksum[0] + courseRows[i][0].hashCode() + credits[i];
+        }
+        batch(courses, "INSERT INTO courses (id, course_name, teacher_name, course_description, credit, capacity, " +
+                "number_of_students) VALUES (?, ?, ?, ?, ?, ?, 0)", (ps, i) -> {
+            ps.setLong(1, firstCourseId + i);
+            ps.setString(2, courseRows[i][0]);
+            ps.setString(3, courseRows[i][1]);
+            ps.setString(4, courseRows[i][2]);
+            ps.setInt(5, credits[i]);
+            ps.setInt(6, capacity);
+        });
+
+        for (int from = 0; from < students; from += BATCH_SIZE) {
+            int count = Math.min(BATCH_SIZE, students - from);
+            String[][] rows = new String[count][];
+            LocalDate[] births = new LocalDate[count];
+            for (int i = 0; i < count; i++) {
+                rows[i] = new String[]{NAMES[random.nextInt(NAMES.length)], SURNAMES[random.nextInt(SURNAMES.length)],
+                        MAJORS[random.nextInt(MAJORS.length)]};
+                births[i] = OLDEST_BIRTH_DATE.plusDays(random.nextInt(3650));
+                checksum[0] = 31 * checksum[0] + String.join(",", rows[i]).hashCode() + births[i].toEpochDay();
+            }
+            long firstId = firstStudentId + from;
+            batch(count, "INSERT INTO students (id, name, surname, major, date_of_birth) VALUES (?, ?, ?, ?, ?)",
+                    (ps, i) -> {
+                        ps.setLong(1, firstId + i);
+                        ps.setString(2, rows[i][0]);
+                        ps.setString(3, rows[i][1]);
+                        ps.setString(4, rows[i][2]);
+                        ps.setDate(5, Date.valueOf(births[i]));
+                    });
+        }
+
+        int perBatch = Math.max(1, BATCH_SIZE / Math.max(coursesPerStudent, 1));
+        int[] picked = new int[coursesPerStudent];
+        for (int from = 0; from < students && coursesPerStudent > 0; from += perBatch) {
+            int count = Math.min(perBatch, students - from);
+            long[] studentIds = new long[count * coursesPerStudent];
+            long[] courseIds = new long[studentIds.length];
+            long[] minutes = new long[studentIds.length];
+            for (int i = 0; i < count; i++) {
+                pickDistinct(random, courses, picked);
+                for (int k = 0; k < coursesPerStudent; k++) {
+                    int row = i * coursesPerStudent + k;
+                    studentIds[row] = firstStudentId + from + i;
+                    courseIds[row] = firstCourseId + picked[k];
+                    minutes[row] = random.nextInt(60 * 24 * 120);
+                    checksum[0] = 31 * checksum[0] + (long) (from + i) * courses + picked[k] + minutes[row];
+                }
+            }
+            batch(studentIds.length, "INSERT INTO student_course (student_id, course_id, enrolled_at) VALUES (?, ?, ?)",
+                    (ps, i) -> {
+                        ps.setLong(1, studentIds[i]);
+                        ps.setLong(2, courseIds[i]);
+                        ps.setTimestamp(3, Timestamp.valueOf(FIRST_ENROLLMENT.plusMinutes(minutes[i])));
+                    });
+        }
+
+        jdbcTemplate.update("UPDATE courses c SET number_of_students = " +
+                "(SELECT COUNT(*) FROM student_course sc WHERE sc.course_id = c.id) WHERE c.id >= ?", firstCourseId);
+        jdbcTemplate.update("UPDATE courses SET capacity = number_of_students " +
+                "WHERE id >= ? AND number_of_students > capacity", firstCourseId);
+        restartSequence("courses_seq", firstCourseId + courses);
+        restartSequence("students_seq", firstStudentId + students);
+        catalogCache.evictAll();
+        catalogVersion.bump();
+        // One recomputation is cheaper than moving the analytics totals row by row
+        analytics.rebuild();
+
+        return new Summary(students, courses, (long) students * coursesPerStudent, checksum[0],
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Fills target with distinct indexes in [0, bound), drawn uniformly at random.
+     */
+    private static void pickDistinct(SplittableRandom random, int bound, int[] target) {
+        for (int k = 0; k < target.length; k++) {
+            int candidate;
+            boolean duplicate;
+            do {
+                candidate = random.nextInt(bound);
+                duplicate = false;
+                for (int j = 0; j < k; j++) {
+                    if (target[j] == candidate) {
+                        duplicate = true;
+                        break;
+                    }
+                }
+            } while (duplicate);
+            target[k] = candidate;
+        }
+    }
+
+    /**
+     * Returns the first free ID of a table that Hibernate cannot hand out from a block it already holds:
+     * above the largest stored ID and at or above the next value of the table's sequence.
+     */
+    private long nextId(String table, String sequence) {
+        Long max = jdbcTemplate.queryForObject("SELECT MAX(id) FROM " + table, Long.class);
+        Long next = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR " + sequence, Long.class);
+        return Math.max(max == null ? 1 : max + 1, next);
+    }
+
+    private void restartSequence(String sequence, long next) {
+        // With pooled-lo IDs the sequence value is the first ID of the next block Hibernate hands out
+        jdbcTemplate.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + next);
+    }
+
+    private void batch(int rows, String sql, RowSetter setter) {
+        jdbcTemplate.batchUpdate(sql, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                setter.set(ps, i);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return rows;
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowSetter {
+        void set(PreparedStatement ps, int row) throws SQLException;
+    }
+}
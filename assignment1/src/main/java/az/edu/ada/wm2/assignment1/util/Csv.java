@@ -0,0 +1,67 @@
+/**
+ * Minimal RFC 4180 helpers for reading and writing single CSV lines.
+ * Fields may be quoted with double quotes; a doubled quote inside a quoted field stands for one quote.
+ */
+package az.edu.ada.wm2.assignment1.util;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public final class Csv {
+
+    private Csv() {
+    }
+
+    /**
+     * Splits one CSV line into its fields.
+     * @param line The line to split, without the line terminator.
+     * @return The unquoted fields of the line.
+     * @throws IllegalArgumentException if a quoted field is not terminated.
+     */
+    public static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("unterminated quoted field");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Formats a value as a CSV field, quoting it only if it contains a separator, quote or line break.
+     * @param value The value to format, may be null.
+     * @return The CSV field; an empty string for null.
+     */
+    public static String escape(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
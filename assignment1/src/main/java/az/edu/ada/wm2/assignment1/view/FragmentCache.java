@@ -0,0 +1,129 @@
+/**
+ * Cache of rendered Thymeleaf fragments, for page parts that are identical for every request until their data changes.
+ * An entry is keyed by template, fragment, data version and the parameters the fragment depends on, so raising the
+ * data version invalidates every fragment rendered from older data; those entries are never read again and are
+ * evicted once the cache reaches its size bound. The model is only built on a miss, and concurrent misses of the
+ * same key render once: the first request installs a pending entry and renders outside the cache, the others
+ * wait for that entry, so no cache lock is held while the model is queried.
+ * <p>
+ * Fragments are rendered against a response that never rewrites URLs, so a link in a cached fragment never
+ * carries the jsessionid of the request that happened to render it. Fragments that differ per user or per
+ * session must not be cached here.
+ */
+package az.edu.ada.wm2.assignment1.view;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.WebContext;
+import org.thymeleaf.web.servlet.JakartaServletWebApplication;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+public class FragmentCache {
+
+    /**
+     * Name of the cache in the cache.* metrics.
+     */
+    public static final String METRICS_NAME = "rendered-fragments";
+
+    private final ITemplateEngine templateEngine;
+    private final AsyncCache<Key, String> cache;
+
+    /**
+     * Key of one rendered fragment.
+     * @param template The template name, e.g. "courses/fragments".
+     * @param fragment The fragment name within the template.
+     * @param version The version of the data the fragment is rendered from.
+     * @param params The further values the fragment depends on, e.g. the page cursor.
+     */
+    private record Key(String template, String fragment, String version, List<Object> params) {
+    }
+
+    /**
+     * Constructor for FragmentCache.
+     * @param templateEngine The engine rendering the fragments.
+     * @param meterRegistry The registry the hit, miss and eviction metrics are recorded in.
+     * @param maxSize The upper bound of the rendered HTML held, counted in characters.
+     */
+    public FragmentCache(ITemplateEngine templateEngine, MeterRegistry meterRegistry, DataSize maxSize) {
+        this.templateEngine = templateEngine;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Key key, String html) -> html.length())
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), METRICS_NAME);
+    }
+
+    /**
+     * Returns a rendered fragment, rendering it on a miss.
+     * The version must be read before the model's data, so an entry never claims a version newer than its content.
+     * @param request The current request, used to build links and the locale.
+     * @param template The template containing the fragment.
+     * @param fragment The name of the fragment.
+     * @param version The current version of the data the fragment is rendered from.
+     * @param model Supplies the fragment's variables; only called on a miss, outside of the cache.
+     * @param params The further values the fragment depends on, null allowed; part of the key.
+     * @return The rendered HTML of the fragment.
+     */
+    public String render(NativeWebRequest request, String template, String fragment, String version,
+                         Supplier<Map<String, Object>> model, Object... params) {
+        CompletableFuture<String> miss = new CompletableFuture<>();
+        CompletableFuture<String> entry = cache.get(new Key(template, fragment, version, Arrays.asList(params)),
+                (key, executor) -> miss);
+        if (entry == miss) {
+            try {
+                miss.complete(process(request, template, fragment, model.get()));
+            } catch (RuntimeException | Error e) {
+                // A failed entry is dropped by the cache, so the next request renders again
+                miss.completeExceptionally(e);
+                throw e;
+            }
+        }
+        try {
+            return entry.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private String process(NativeWebRequest request, String template, String fragment, Map<String, Object> variables) {
+        HttpServletResponse response = new HttpServletResponseWrapper(
+                request.getNativeResponse(HttpServletResponse.class)) {
+            @Override
+            public String encodeURL(String url) {
+                return url;
+            }
+
+            @Override
+            public String encodeRedirectURL(String url) {
+                return url;
+            }
+        };
+        HttpServletRequest servletRequest = request.getNativeRequest(HttpServletRequest.class);
+        // The servlet context is taken from the request, so the cache can be created without a web server
+        JakartaServletWebApplication application = JakartaServletWebApplication.buildApplication(
+                servletRequest.getServletContext());
+        WebContext context = new WebContext(application.buildExchange(servletRequest, response),
+                LocaleContextHolder.getLocale(), variables);
+        return templateEngine.process(template, Set.of(fragment), context);
+    }
+}
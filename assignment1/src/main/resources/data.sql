@@ -1,17 +1,25 @@
-INSERT INTO COURSES(course_name, teacher_name, course_description, credit) VALUES('WM1', 'Nureddin','asds', 6)
-INSERT INTO COURSES(course_name, teacher_name, course_description, credit) VALUES('WM2', 'Nureddin','asasdahgsdfhasgdfhasgfdhagsfdhgasfhdgfashgdfhasgdfhasgfdhfashdgfahsdgfhasdgasfdahsdds', 6)
-INSERT INTO COURSES(course_name, teacher_name, course_description, credit) VALUES('Software Engineering', 'Araz','asds', 2)
-INSERT INTO COURSES(course_name, teacher_name, course_description, credit) VALUES('Math', 'Yaqgub','asds', 6)
-INSERT INTO COURSES(course_name, teacher_name, course_description, credit) VALUES('Physic lab', 'Gulmammad','asds', 2)
+INSERT INTO COURSES(id, course_name, teacher_name, course_description, credit) VALUES(1, 'WM1', 'Nureddin','asds', 6)
+INSERT INTO COURSES(id, course_name, teacher_name, course_description, credit) VALUES(2, 'WM2', 'Nureddin','asasdahgsdfhasgdfhasgfdhagsfdhgasfhdgfashgdfhasgdfhasgfdhfashdgfahsdgfhasdgasfdahsdds', 6)
+INSERT INTO COURSES(id, course_name, teacher_name, course_description, credit) VALUES(3, 'Software Engineering', 'Araz','asds', 2)
+INSERT INTO COURSES(id, course_name, teacher_name, course_description, credit) VALUES(4, 'Math', 'Yaqgub','asds', 6)
+INSERT INTO COURSES(id, course_name, teacher_name, course_description, credit) VALUES(5, 'Physic lab', 'Gulmammad','asds', 2)
 
-INSERT INTO STUDENTS(name, surname, major,date_of_birth) VALUES('Ravan', 'Mammadov','Computer Engineering','2003-10-30')
-INSERT INTO STUDENTS(name, surname, major,date_of_birth) VALUES('Kimse', 'Mammadov','Computer Science','2004-9-20')
-INSERT INTO STUDENTS(name, surname, major,date_of_birth) VALUES('Ravan', 'Wurbanov','Computer Science','2000-11-30')
-INSERT INTO STUDENTS(name, surname, major,date_of_birth) VALUES('Ravan', 'Mammadov','Information Technology','2003-10-30')
-INSERT INTO STUDENTS(name, surname, major,date_of_birth) VALUES('Ravan', 'Mammadov','Computer Engineering','2003-10-30')
+INSERT INTO STUDENTS(id, name, surname, major,date_of_birth) VALUES(1, 'Ravan', 'Mammadov','Computer Engineering','2003-10-30')
+INSERT INTO STUDENTS(id, name, surname, major,date_of_birth) VALUES(2, 'Kimse', 'Mammadov','Computer Science','2004-9-20')
+INSERT INTO STUDENTS(id, name, surname, major,date_of_birth) VALUES(3, 'Ravan', 'Wurbanov','Computer Science','2000-11-30')
+INSERT INTO STUDENTS(id, name, surname, major,date_of_birth) VALUES(4, 'Ravan', 'Mammadov','Information Technology','2003-10-30')
+INSERT INTO STUDENTS(id, name, surname, major,date_of_birth) VALUES(5, 'Ravan', 'Mammadov','Computer Engineering','2003-10-30')
 
 INSERT INTO STUDENT_COURSE(STUDENT_ID,COURSE_ID) VALUES(1,1)
 INSERT INTO STUDENT_COURSE(STUDENT_ID,COURSE_ID) VALUES(1,2)
 INSERT INTO STUDENT_COURSE(STUDENT_ID,COURSE_ID) VALUES(2,3)
 INSERT INTO STUDENT_COURSE(STUDENT_ID,COURSE_ID) VALUES(1,4)
-INSERT INTO STUDENT_COURSE(STUDENT_ID,COURSE_ID) VALUES(2,4)
\ No newline at end of file
+INSERT INTO STUDENT_COURSE(STUDENT_ID,COURSE_ID) VALUES(2,4)
+
+UPDATE COURSES c SET number_of_students = (SELECT COUNT(*) FROM STUDENT_COURSE sc WHERE sc.COURSE_ID = c.ID)
+UPDATE STUDENTS s SET enrolled_courses = (SELECT COUNT(*) FROM STUDENT_COURSE sc WHERE sc.STUDENT_ID = s.ID), enrolled_credits = (SELECT COALESCE(SUM(c.CREDIT), 0) FROM STUDENT_COURSE sc JOIN COURSES c ON c.ID = sc.COURSE_ID WHERE sc.STUDENT_ID = s.ID)
+INSERT INTO MAJOR_STATS(major, stripe, students, enrolled_courses, enrolled_credits) SELECT major, MOD(id, 16), COUNT(*), SUM(enrolled_courses), SUM(enrolled_credits) FROM STUDENTS WHERE major IS NOT NULL GROUP BY major, MOD(id, 16)
+INSERT INTO CATALOG_REVISION(id, epoch, revision) VALUES(1, RANDOM_UUID(), 0)
+
+ALTER SEQUENCE COURSES_SEQ RESTART WITH 6
+ALTER SEQUENCE STUDENTS_SEQ RESTART WITH 6
\ No newline at end of file
@@ -0,0 +1,39 @@
+-- Schema of the durable profile; must stay in step with the entity mappings (ddl-auto=validate checks it)
+CREATE SEQUENCE courses_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE students_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE courses (
+    id                 BIGINT       NOT NULL,
+    course_name        VARCHAR(255),
+    teacher_name       VARCHAR(255),
+    course_description VARCHAR(255),
+    number_of_students INT DEFAULT 0,
+    capacity           INT DEFAULT 30,
+    credit             INTEGER      NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE students (
+    id            BIGINT NOT NULL,
+    name          VARCHAR(255),
+    surname       VARCHAR(255),
+    major         VARCHAR(255),
+    date_of_birth DATE,
+    PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_students_name_id ON students (name, id);
+CREATE INDEX idx_students_surname_id ON students (surname, id);
+CREATE INDEX idx_students_major_id ON students (major, id);
+
+CREATE TABLE student_course (
+    student_id  BIGINT    NOT NULL,
+    course_id   BIGINT    NOT NULL,
+    enrolled_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+    PRIMARY KEY (student_id, course_id),
+    CONSTRAINT fk_student_course_student FOREIGN KEY (student_id) REFERENCES students (id),
+    CONSTRAINT fk_student_course_course FOREIGN KEY (course_id) REFERENCES courses (id)
+);
+
+CREATE INDEX idx_student_course_student_id ON student_course (student_id);
+CREATE INDEX idx_student_course_course_id ON student_course (course_id);
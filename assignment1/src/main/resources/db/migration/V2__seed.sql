@@ -0,0 +1,23 @@
+-- Initial data of the durable profile; the in-memory profile loads the same rows from data.sql
+INSERT INTO COURSES(id, course_name, teacher_name, course_description, credit) VALUES(1, 'WM1', 'Nureddin','asds', 6);
+INSERT INTO COURSES(id, course_name, teacher_name, course_description, credit) VALUES(2, 'WM2', 'Nureddin','asasdahgsdfhasgdfhasgfdhagsfdhgasfhdgfashgdfhasgdfhasgfdhfashdgfahsdgfhasdgasfdahsdds', 6);
+INSERT INTO COURSES(id, course_name, teacher_name, course_description, credit) VALUES(3, 'Software Engineering', 'Araz','asds', 2);
+INSERT INTO COURSES(id, course_name, teacher_name, course_description, credit) VALUES(4, 'Math', 'Yaqgub','asds', 6);
+INSERT INTO COURSES(id, course_name, teacher_name, course_description, credit) VALUES(5, 'Physic lab', 'Gulmammad','asds', 2);
+
+INSERT INTO STUDENTS(id, name, surname, major,date_of_birth) VALUES(1, 'Ravan', 'Mammadov','Computer Engineering','2003-10-30');
+INSERT INTO STUDENTS(id, name, surname, major,date_of_birth) VALUES(2, 'Kimse', 'Mammadov','Computer Science','2004-9-20');
+INSERT INTO STUDENTS(id, name, surname, major,date_of_birth) VALUES(3, 'Ravan', 'Wurbanov','Computer Science','2000-11-30');
+INSERT INTO STUDENTS(id, name, surname, major,date_of_birth) VALUES(4, 'Ravan', 'Mammadov','Information Technology','2003-10-30');
+INSERT INTO STUDENTS(id, name, surname, major,date_of_birth) VALUES(5, 'Ravan', 'Mammadov','Computer Engineering','2003-10-30');
+
+INSERT INTO STUDENT_COURSE(STUDENT_ID,COURSE_ID) VALUES(1,1);
+INSERT INTO STUDENT_COURSE(STUDENT_ID,COURSE_ID) VALUES(1,2);
+INSERT INTO STUDENT_COURSE(STUDENT_ID,COURSE_ID) VALUES(2,3);
+INSERT INTO STUDENT_COURSE(STUDENT_ID,COURSE_ID) VALUES(1,4);
+INSERT INTO STUDENT_COURSE(STUDENT_ID,COURSE_ID) VALUES(2,4);
+
+UPDATE COURSES c SET number_of_students = (SELECT COUNT(*) FROM STUDENT_COURSE sc WHERE sc.COURSE_ID = c.ID);
+
+ALTER SEQUENCE COURSES_SEQ RESTART WITH 6;
+ALTER SEQUENCE STUDENTS_SEQ RESTART WITH 6;
@@ -0,0 +1,3 @@
+-- Optimistic locking versions of courses and students (@Version); existing rows start at 0
+ALTER TABLE courses ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
+ALTER TABLE students ADD COLUMN version BIGINT DEFAULT 0 NOT NULL;
@@ -0,0 +1,22 @@
+-- Running enrollment totals per student and per major (EnrollmentAnalytics), initialized from the existing rows.
+-- The totals of a major are split into 16 stripes by student ID (MajorStatsStripe.STRIPES) and summed when read
+ALTER TABLE students ADD COLUMN enrolled_courses INT DEFAULT 0 NOT NULL;
+ALTER TABLE students ADD COLUMN enrolled_credits INT DEFAULT 0 NOT NULL;
+
+CREATE TABLE major_stats (
+    major            VARCHAR(255) NOT NULL,
+    stripe           INT          NOT NULL,
+    students         BIGINT DEFAULT 0 NOT NULL,
+    enrolled_courses BIGINT DEFAULT 0 NOT NULL,
+    enrolled_credits BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (major, stripe)
+);
+
+UPDATE students s SET
+    enrolled_courses = (SELECT COUNT(*) FROM student_course sc WHERE sc.student_id = s.id),
+    enrolled_credits = (SELECT COALESCE(SUM(c.credit), 0) FROM student_course sc
+                        JOIN courses c ON c.id = sc.course_id WHERE sc.student_id = s.id);
+
+INSERT INTO major_stats (major, stripe, students, enrolled_courses, enrolled_credits)
+SELECT major, MOD(id, 16), COUNT(*), SUM(enrolled_courses), SUM(enrolled_credits) FROM students
+WHERE major IS NOT NULL GROUP BY major, MOD(id, 16);
@@ -0,0 +1,9 @@
+-- Catalog version shared by all instances (CatalogVersion); one row, created with a random epoch
+CREATE TABLE catalog_revision (
+    id       INT          NOT NULL,
+    epoch    VARCHAR(255) NOT NULL,
+    revision BIGINT DEFAULT 0 NOT NULL,
+    PRIMARY KEY (id)
+);
+
+INSERT INTO catalog_revision (id, epoch, revision) VALUES (1, RANDOM_UUID(), 0);
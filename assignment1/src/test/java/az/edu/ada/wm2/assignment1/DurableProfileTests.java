@@ -0,0 +1,31 @@
+package az.edu.ada.wm2.assignment1;
+
+import az.edu.ada.wm2.assignment1.repository.CourseRepository;
+import az.edu.ada.wm2.assignment1.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the Flyway migrations of the durable profile on an empty database and lets Hibernate validate the
+ * resulting schema against the entity mappings, so a mapping change without a migration fails the build.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:durableProfileTests;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("durable")
+class DurableProfileTests {
+
+	@Autowired
+	private StudentRepository studentRepo;
+
+	@Autowired
+	private CourseRepository courseRepo;
+
+	@Test
+	void migrationsMatchTheMappingsAndSeedTheInitialData() {
+		assertThat(studentRepo.count()).isEqualTo(5);
+		assertThat(courseRepo.findCatalog()).hasSize(5);
+	}
+}
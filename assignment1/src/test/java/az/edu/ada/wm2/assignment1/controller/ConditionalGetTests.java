@@ -0,0 +1,84 @@
+package az.edu.ada.wm2.assignment1.controller;
+
+import az.edu.ada.wm2.assignment1.monitoring.SqlStatementCounter;
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs of the pages students refresh most: unchanged pages are answered with 304 after at most a
+ * version lookup, and an enrollment change makes them render again.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ConditionalGetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Test
+	void unchangedCatalogIsNotModifiedAfterOneLookup() throws Exception {
+		String etag = etagOf("/course/");
+
+		assertNotModified("/course/", etag, 1);
+		reenroll();
+		mockMvc.perform(get("/course/").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+	}
+
+	@Test
+	void unchangedStudentPagesAreNotModifiedAfterTwoLookups() throws Exception {
+		String etag = etagOf("/student/info/2");
+
+		assertNotModified("/student/info/2", etag, 2);
+		assertNotModified("/course/takeCourse/1", etagOf("/course/takeCourse/1"), 2);
+		reenroll();
+		mockMvc.perform(get("/student/info/2").header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void coursesOfAnUnknownStudentAreNotFound() throws Exception {
+		mockMvc.perform(get("/course/takeCourse/999999"))
+				.andExpect(status().isNotFound())
+				.andExpect(header().doesNotExist(HttpHeaders.ETAG));
+	}
+
+	/**
+	 * Drops and re-takes a seeded enrollment, leaving the data as it was but changing the catalog version.
+	 */
+	private void reenroll() {
+		assertThat(enrollmentService.drop(2L, 3L)).isTrue();
+		assertThat(enrollmentService.enroll(2L, 3L)).isEqualTo(EnrollmentService.Result.ENROLLED);
+	}
+
+	private String etagOf(String url) throws Exception {
+		return mockMvc.perform(get(url))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+	}
+
+	private void assertNotModified(String url, String etag, int statements) throws Exception {
+		try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+			mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+					.andExpect(status().isNotModified())
+					.andExpect(content().string(""));
+			assertThat(scope.getStatements()).isLessThanOrEqualTo(statements);
+		}
+	}
+}
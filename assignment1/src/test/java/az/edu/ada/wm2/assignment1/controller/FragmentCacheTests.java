@@ -0,0 +1,65 @@
+package az.edu.ada.wm2.assignment1.controller;
+
+import az.edu.ada.wm2.assignment1.monitoring.SqlStatementInterceptor;
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The course catalog table is rendered once per catalog version and served from the fragment cache until an
+ * enrollment changes it, while the per-student tables of available courses are never cached.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class FragmentCacheTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Test
+	void catalogIsRenderedOncePerCatalogVersion() throws Exception {
+		String first = mockMvc.perform(get("/course/"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		mockMvc.perform(get("/course/"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(SqlStatementInterceptor.STATEMENTS_HEADER, "1"))
+				.andExpect(content().string(first));
+
+		assertThat(enrollmentService.enroll(3L, 5L)).isEqualTo(EnrollmentService.Result.ENROLLED);
+		try {
+			mockMvc.perform(get("/course/"))
+					.andExpect(status().isOk())
+					.andExpect(header().string(SqlStatementInterceptor.STATEMENTS_HEADER, not("1")))
+					.andExpect(content().string(not(first)));
+		} finally {
+			enrollmentService.drop(3L, 5L);
+		}
+	}
+
+	@Test
+	void availableCoursesAreRenderedForEveryRequest() throws Exception {
+		mockMvc.perform(get("/course/takeCourse/3"))
+				.andExpect(status().isOk())
+				.andExpect(content().string(containsString("/course/takeCourse/3/selectedCourse/5\"")));
+
+		mockMvc.perform(get("/course/takeCourse/3"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(SqlStatementInterceptor.STATEMENTS_HEADER, not("1")));
+	}
+}
@@ -0,0 +1,67 @@
+package az.edu.ada.wm2.assignment1.controller;
+
+import az.edu.ada.wm2.assignment1.monitoring.SqlStatementCounter;
+import az.edu.ada.wm2.assignment1.monitoring.SqlStatementInterceptor;
+import az.edu.ada.wm2.assignment1.support.SqlStatementBudget;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Statement budgets of the pages that used to hide N+1 queries.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlStatementBudgetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	@SqlStatementBudget(statements = 2)
+	void courseListIsVersionLookupAndOneQuery() throws Exception {
+		mockMvc.perform(get("/course/"))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(SqlStatementInterceptor.STATEMENTS_HEADER));
+	}
+
+	@Test
+	@SqlStatementBudget(statements = 3)
+	void studentInfoIsTwoVersionLookupsAndOneQuery() throws Exception {
+		mockMvc.perform(get("/student/info/1"))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	@SqlStatementBudget(statements = 1, rows = 21)
+	void studentApiPageFetchesOnePageOfRows() throws Exception {
+		mockMvc.perform(get("/api/v1/students"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(SqlStatementInterceptor.STATEMENTS_HEADER, "1"));
+	}
+
+	@Test
+	void streamedExportLeavesNoScopeBehindForTheNextRequest() throws Exception {
+		MvcResult export = mockMvc.perform(get("/student/export"))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		mockMvc.perform(asyncDispatch(export))
+				.andExpect(status().isOk());
+
+		assertThat(SqlStatementCounter.openScopes()).isZero();
+		mockMvc.perform(get("/api/v1/students"))
+				.andExpect(status().isOk())
+				.andExpect(header().string(SqlStatementInterceptor.STATEMENTS_HEADER, "1"));
+		assertThat(SqlStatementCounter.openScopes()).isZero();
+	}
+}
@@ -0,0 +1,152 @@
+package az.edu.ada.wm2.assignment1.controller;
+
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentService;
+import az.edu.ada.wm2.assignment1.service.impl.StudentExportService;
+import az.edu.ada.wm2.assignment1.support.TestData;
+import az.edu.ada.wm2.assignment1.util.Csv;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The streaming student export: every student appears with the courses they are enrolled in,
+ * and the body is written after the handler has returned rather than built up front.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StudentExportTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentExportService studentExportService;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	private Long enrolled;
+	private Long unenrolled;
+	private Long first;
+	private Long second;
+
+	@BeforeEach
+	void createStudents() {
+		enrolled = testData.createStudent("Exported, \"Quoted\"", "Law");
+		unenrolled = testData.createStudent("Unexported", "Law");
+		first = testData.createCourse(5);
+		second = testData.createCourse(5);
+		enrollmentService.enroll(enrolled, first);
+		enrollmentService.enroll(enrolled, second);
+	}
+
+	@Test
+	void csvHasOneLinePerEnrollmentAndOnePerStudentWithout() throws Exception {
+		String body = export("csv", "text/csv");
+		List<String> lines = Arrays.asList(body.split("\n"));
+
+		assertThat(lines.get(0)).isEqualTo("student_id,name,surname,major,date_of_birth,course_id,course_name,credit,enrolled_at");
+		List<List<String>> enrolledRows = rowsOf(lines, enrolled);
+		assertThat(enrolledRows).extracting(row -> row.get(1)).containsOnly("Exported, \"Quoted\"");
+		assertThat(enrolledRows).extracting(row -> row.get(5)).containsExactlyInAnyOrder(first.toString(), second.toString());
+		assertThat(enrolledRows).allSatisfy(row -> {
+			assertThat(row.get(7)).isEqualTo("6");
+			assertThat(row.get(8)).isNotEmpty();
+		});
+		List<List<String>> unenrolledRows = rowsOf(lines, unenrolled);
+		assertThat(unenrolledRows).hasSize(1);
+		assertThat(unenrolledRows.get(0).subList(5, 9)).containsOnly("");
+	}
+
+	@Test
+	void ndjsonHasOneObjectPerStudentWithItsCoursesNested() throws Exception {
+		String body = export("ndjson", MediaType.APPLICATION_NDJSON_VALUE);
+
+		List<JsonNode> students = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			students.add(objectMapper.readTree(line));
+		}
+		assertThat(students).extracting(student -> student.get("id").asLong()).doesNotHaveDuplicates();
+		JsonNode student = students.stream().filter(s -> s.get("id").asLong() == enrolled).findFirst().orElseThrow();
+		assertThat(student.get("name").asText()).isEqualTo("Exported, \"Quoted\"");
+		assertThat(student.get("courses").findValues("id")).extracting(JsonNode::asLong)
+				.containsExactlyInAnyOrder(first, second);
+		JsonNode without = students.stream().filter(s -> s.get("id").asLong() == unenrolled).findFirst().orElseThrow();
+		assertThat(without.get("courses")).isEmpty();
+	}
+
+	@Test
+	void exportIsWrittenInChunksRatherThanBufferedWhole() throws Exception {
+		// Enough rows for more than 16 KB on their own, whatever else the database holds
+		testData.createStudents(1000);
+		List<Integer> writes = new ArrayList<>();
+		ByteArrayOutputStream all = new ByteArrayOutputStream();
+		OutputStream out = new OutputStream() {
+			@Override
+			public void write(int b) {
+				writes.add(1);
+				all.write(b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) {
+				writes.add(len);
+				all.write(b, off, len);
+			}
+		};
+
+		studentExportService.exportCsv(out);
+
+		assertThat(all.size()).isGreaterThan(16 * 1024);
+		assertThat(writes).hasSizeGreaterThan(1);
+		assertThat(writes).allSatisfy(len -> assertThat(len).isLessThan(all.size()));
+	}
+
+	private String export(String format, String contentType) throws Exception {
+		MvcResult started = mockMvc.perform(get("/student/export").param("format", format))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		return mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentTypeCompatibleWith(contentType))
+				.andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=students." + format))
+				.andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+	}
+
+	private static List<List<String>> rowsOf(List<String> lines, Long studentId) {
+		return lines.stream()
+				.skip(1)
+				.map(Csv::parseLine)
+				.filter(row -> row.get(0).equals(studentId.toString()))
+				.toList();
+	}
+}
@@ -0,0 +1,95 @@
+package az.edu.ada.wm2.assignment1.controller;
+
+import az.edu.ada.wm2.assignment1.dto.KeysetPage;
+import az.edu.ada.wm2.assignment1.model.Student;
+import az.edu.ada.wm2.assignment1.repository.StudentRepository;
+import az.edu.ada.wm2.assignment1.service.impl.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Keyset paging of the sorted student listing across students whose sort key is null:
+ * a page that ends on a null key must lead to the following rows, not back to the first page.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class StudentSortPagingTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private StudentRepository studentRepo;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private List<Long> nullSurnames;
+
+	@BeforeEach
+	void createStudentsWithoutSurname() {
+		for (int i = 0; i < 5; i++) {
+			studentService.save(Student.builder().name("Nameless" + i).major("Law").build());
+		}
+		nullSurnames = jdbcTemplate.queryForList("SELECT id FROM students WHERE surname IS NULL ORDER BY id", Long.class);
+	}
+
+	@Test
+	void ascendingPagesWalkThroughNullKeysIntoTheRest() throws Exception {
+		List<Long> seen = new ArrayList<>();
+		String url = "http://localhost/student/sort/surname?size=2";
+		while (url != null && seen.size() < nullSurnames.size() + 4) {
+			ModelAndView page = mockMvc.perform(get(URI.create(url))).andExpect(status().isOk()).andReturn().getModelAndView();
+			Map<String, Object> model = page.getModel();
+			for (Object student : (List<?>) model.get("students")) {
+				seen.add(((Student) student).getId());
+			}
+			url = (String) model.get("nextPageUrl");
+		}
+
+		assertThat(seen).doesNotHaveDuplicates();
+		assertThat(seen.subList(0, nullSurnames.size())).isEqualTo(nullSurnames);
+		assertThat(studentRepo.findAllById(seen.subList(nullSurnames.size(), seen.size())))
+				.allSatisfy(student -> assertThat(student.getSurname()).isNotNull());
+	}
+
+	@Test
+	void descendingPagesEndWithTheNullKeys() {
+		Map<String, Object> last = jdbcTemplate.queryForMap(
+				"SELECT surname, id FROM students WHERE surname IS NOT NULL ORDER BY surname, id LIMIT 1");
+		KeysetPage<Student> page = studentService.sortStudentByProperty(Sort.Direction.DESC, "surname",
+				(String) last.get("SURNAME"), false, ((Number) last.get("ID")).longValue(), 2);
+
+		List<Long> seen = new ArrayList<>();
+		while (true) {
+			page.getContent().forEach(student -> seen.add(student.getId()));
+			if (!page.isHasNext()) {
+				break;
+			}
+			assertThat(page.isNextKeyNull()).isTrue();
+			page = studentService.sortStudentByProperty(Sort.Direction.DESC, "surname",
+					page.getNextKey(), page.isNextKeyNull(), page.getNextId(), 2);
+		}
+
+		assertThat(seen).isEqualTo(nullSurnames.reversed());
+	}
+}
@@ -0,0 +1,104 @@
+package az.edu.ada.wm2.assignment1.controller.api;
+
+import az.edu.ada.wm2.assignment1.model.Student;
+import az.edu.ada.wm2.assignment1.service.impl.EnrollmentService;
+import az.edu.ada.wm2.assignment1.service.impl.StudentService;
+import az.edu.ada.wm2.assignment1.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StudentApiControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private TestData testData;
+
+	@Test
+	void listsStudentsInKeysetPages() throws Exception {
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < 3; i++) {
+			Student student = Student.builder()
+					.name("Paged" + i)
+					.surname("Tested")
+					.major("Law")
+					.dateOfBirth(LocalDate.of(2003, 10, 30))
+					.build();
+			studentService.save(student);
+			ids.add(student.getId());
+		}
+		String before = String.valueOf(ids.get(0) - 1);
+
+		mockMvc.perform(get("/api/v1/students").param("after", before).param("size", "2"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content", hasSize(2)))
+				.andExpect(jsonPath("$.content[0].id").value(ids.get(0)))
+				.andExpect(jsonPath("$.content[0].dateOfBirth").value("2003-10-30"))
+				.andExpect(jsonPath("$.content[0].courses").doesNotExist())
+				.andExpect(jsonPath("$.hasNext").value(true))
+				.andExpect(jsonPath("$.nextId").value(ids.get(1)));
+
+		mockMvc.perform(get("/api/v1/students").param("after", ids.get(1).toString()).param("size", "2"))
+				.andExpect(jsonPath("$.content[0].id").value(ids.get(2)));
+	}
+
+	@Test
+	void returnsEnrollmentsOfAStudent() throws Exception {
+		Long studentId = testData.createStudents(1).get(0);
+		List<Long> courseIds = List.of(testData.createCourse(5), testData.createCourse(5), testData.createCourse(5));
+		courseIds.reversed().forEach(courseId -> enrollmentService.enroll(studentId, courseId));
+
+		mockMvc.perform(get("/api/v1/students/{id}/enrollments", studentId))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.content[*].courseId").value(contains(courseIds.stream().map(Long::intValue).toArray())))
+				.andExpect(jsonPath("$.content[0].enrolledAt").exists());
+	}
+
+	@Test
+	void returnsNotFoundForAMissingStudent() throws Exception {
+		mockMvc.perform(get("/api/v1/students/999999999"))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void enrollmentAnswersWithTheOutcomeStatus() throws Exception {
+		Long courseId = testData.createCourse(1);
+		List<Long> studentIds = testData.createStudents(2);
+
+		mockMvc.perform(put("/api/v1/students/{id}/enrollments/{courseId}", studentIds.get(0), courseId))
+				.andExpect(status().isCreated());
+		mockMvc.perform(put("/api/v1/students/{id}/enrollments/{courseId}", studentIds.get(0), courseId))
+				.andExpect(status().isOk());
+		mockMvc.perform(put("/api/v1/students/{id}/enrollments/{courseId}", studentIds.get(1), courseId))
+				.andExpect(status().isConflict());
+		mockMvc.perform(put("/api/v1/students/{id}/enrollments/{courseId}", studentIds.get(1), -1L))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$").value("COURSE_NOT_FOUND"));
+		mockMvc.perform(put("/api/v1/students/{id}/enrollments/{courseId}", -1L, testData.createCourse(1)))
+				.andExpect(status().isNotFound())
+				.andExpect(jsonPath("$").value("STUDENT_NOT_FOUND"));
+	}
+}
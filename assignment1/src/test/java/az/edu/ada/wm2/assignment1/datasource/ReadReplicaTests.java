@@ -0,0 +1,118 @@
+package az.edu.ada.wm2.assignment1.datasource;
+
+import az.edu.ada.wm2.assignment1.model.Course;
+import az.edu.ada.wm2.assignment1.model.Student;
+import az.edu.ada.wm2.assignment1.service.impl.CourseService;
+import az.edu.ada.wm2.assignment1.service.impl.StudentService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.servlet.http.Cookie;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the read/write split on two in-memory H2 databases. The replication interval is longer than the test,
+ * so the replica only catches up when the test syncs it.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:readReplicaTestsPrimary",
+		"app.datasource.replica.url=jdbc:h2:mem:readReplicaTestsReplica;DB_CLOSE_DELAY=-1",
+		"app.datasource.replica.lag=1h",
+		"app.datasource.replica.max-staleness=1h"
+})
+@ActiveProfiles("replica")
+@AutoConfigureMockMvc
+class ReadReplicaTests {
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private ReplicaSync replicaSync;
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private DataSourceProperties dataSourceProperties;
+
+	@Test
+	void readsAreServedByTheReplicaAndSeeWritesAfterReplication() throws Exception {
+		assertThat(studentService.getSummary(1L)).isPresent();
+
+		Student student = Student.builder().name("Lagging").surname("Replica").major("Law").build();
+		studentService.save(student);
+
+		assertThat(studentService.getSummary(student.getId())).isEmpty();
+		replicaSync.syncNow();
+		assertThat(studentService.getSummary(student.getId())).isPresent();
+	}
+
+	@Test
+	void clientReadsItsOwnWritesBeforeReplication() throws Exception {
+		Cookie pin = mockMvc.perform(get("/course/takeCourse/5/selectedCourse/5"))
+				.andExpect(status().is3xxRedirection())
+				.andExpect(cookie().exists(ReadYourWritesInterceptor.COOKIE))
+				.andReturn().getResponse().getCookie(ReadYourWritesInterceptor.COOKIE);
+
+		mockMvc.perform(get("/student/info/5"))
+				.andExpect(content().string(containsString("(0 courses)")));
+		mockMvc.perform(get("/student/info/5").cookie(pin))
+				.andExpect(content().string(containsString("(1 courses)")));
+	}
+
+	@Test
+	void replicaReadsFillTheSecondLevelCache() {
+		Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+		cache.evictEntityData(Course.class, 3L);
+
+		courseService.getById(3L);
+
+		assertThat(cache.containsEntity(Course.class, 3L)).isTrue();
+	}
+
+	@Test
+	void unchangedTablesAreNotCopiedAgain() throws Exception {
+		replicaSync.syncNow();
+
+		assertThat(replicaSync.syncNow()).isZero();
+	}
+
+	@Test
+	void tablesAboveTheSizeCapStopTheReplication() {
+		ReplicaSync.Endpoint primary = new ReplicaSync.Endpoint(dataSourceProperties.determineUrl(),
+				dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword());
+		ReplicaSync.Endpoint replica = new ReplicaSync.Endpoint("jdbc:h2:mem:readReplicaTestsCapped;DB_CLOSE_DELAY=-1",
+				"sa", "");
+		try (ReplicaSync capped = new ReplicaSync(primary, replica, Duration.ofHours(1), Duration.ofHours(1), 1,
+				() -> {}, new SimpleMeterRegistry())) {
+			assertThatThrownBy(capped::syncNow)
+					.isInstanceOf(IllegalStateException.class)
+					.hasMessageContaining("more than the 1");
+			assertThat(capped.isFresh()).isFalse();
+		}
+	}
+}
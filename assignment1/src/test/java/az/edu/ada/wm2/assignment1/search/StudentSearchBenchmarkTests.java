@@ -0,0 +1,87 @@
+package az.edu.ada.wm2.assignment1.search;
+
+import az.edu.ada.wm2.assignment1.model.Student;
+import az.edu.ada.wm2.assignment1.repository.StudentRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the search index with the LIKE '%x%' repository queries it replaces, on a seeded table.
+ * Checks that the index finds every row the name LIKE query finds and answers a page of hits faster than the query.
+ */
+@SpringBootTest
+@DirtiesContext
+class StudentSearchBenchmarkTests {
+
+	private static final int STUDENTS = 20_000;
+	private static final int WARMUP = 50;
+	private static final int ITERATIONS = 200;
+	private static final String[] NAMES = {"Ravan", "Kimse", "Aysel", "Murad", "Leyla", "Nigar", "Farid", "Kamran", "Sabina", "Orkhan"};
+	private static final String[] SURNAMES = {"Mammadov", "Aliyev", "Huseynov", "Quliyeva", "Hasanov", "Ismayilova", "Abbasov", "Karimli"};
+	private static final String[] MAJORS = {"Computer Science", "Computer Engineering", "Information Technology", "Law", "Finance"};
+	private static final String[] QUERIES = {"rav", "mad", "orkhan", "ism", "ab"};
+
+	@Autowired
+	private StudentRepository studentRepo;
+
+	@Autowired
+	private StudentSearchIndex searchIndex;
+
+	@Test
+	void indexFindsEveryLikeMatchAndIsFaster() {
+		seed();
+		searchIndex.rebuild();
+
+		for (String query : QUERIES) {
+			Set<Long> indexHits = new HashSet<>(searchIndex.search(query, 0, Integer.MAX_VALUE).ids());
+			// Queries shorter than a trigram match word starts only, so compare them with the LIKE hits starting with the query
+			List<Long> likeHits = studentRepo.findByNameContainingIgnoreCase(query).stream()
+					.filter(student -> query.length() >= 3 || student.getName().toLowerCase().startsWith(query))
+					.map(Student::getId)
+					.toList();
+			assertThat(indexHits).containsAll(likeHits);
+
+			long likeNanos = time(() -> studentRepo.findByNameContainingIgnoreCase(query));
+			long indexNanos = time(() -> searchIndex.search(query, 0, 20));
+			assertThat(indexNanos).as("index latency of '%s'", query).isLessThan(likeNanos);
+		}
+	}
+
+	private void seed() {
+		SplittableRandom random = new SplittableRandom(42);
+		List<Student> batch = new ArrayList<>();
+		for (int i = 0; i < STUDENTS; i++) {
+			batch.add(Student.builder()
+					.name(NAMES[random.nextInt(NAMES.length)])
+					.surname(SURNAMES[random.nextInt(SURNAMES.length)])
+					.major(MAJORS[random.nextInt(MAJORS.length)])
+					.build());
+			if (batch.size() == 1000) {
+				studentRepo.saveAll(batch);
+				batch.clear();
+			}
+		}
+		studentRepo.saveAll(batch);
+	}
+
+	private static long time(Runnable operation) {
+		for (int i = 0; i < WARMUP; i++) {
+			operation.run();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < ITERATIONS; i++) {
+			operation.run();
+		}
+		return (System.nanoTime() - start) / ITERATIONS;
+	}
+}
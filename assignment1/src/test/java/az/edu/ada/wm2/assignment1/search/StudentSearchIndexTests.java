@@ -0,0 +1,97 @@
+package az.edu.ada.wm2.assignment1.search;
+
+import az.edu.ada.wm2.assignment1.model.Student;
+import az.edu.ada.wm2.assignment1.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentSearchIndexTests {
+
+	private StudentSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new StudentSearchIndex(null);
+		index.index(student(1L, "Ravan", "Mammadov", "Computer Engineering"));
+		index.index(student(2L, "Kimse", "Ravanli", "Computer Science"));
+		index.index(student(3L, "Aysel", "Quliyeva", "Law"));
+		index.index(student(4L, "Murad", "Aliyev", "Computer Science"));
+	}
+
+	@Test
+	void ranksNameMatchesBeforeSurnameMatches() {
+		StudentSearchIndex.Hits hits = index.search("ravan", 0, 10);
+
+		assertThat(hits.total()).isEqualTo(2);
+		assertThat(hits.ids()).containsExactly(1L, 2L);
+	}
+
+	@Test
+	void matchesSubstringsAcrossFieldsAndRequiresEveryToken() {
+		assertThat(index.search("ience", 0, 10).ids()).containsExactly(2L, 4L);
+		assertThat(index.search("computer murad", 0, 10).ids()).containsExactly(4L);
+		assertThat(index.search("law ravan", 0, 10).ids()).isEmpty();
+	}
+
+	@Test
+	void shortTokensMatchWordStarts() {
+		assertThat(index.search("al", 0, 10).ids()).containsExactly(4L);
+		assertThat(index.search("c m", 0, 10).ids()).containsExactly(4L, 1L);
+	}
+
+	@Test
+	void paginatesRankedHits() {
+		StudentSearchIndex.Hits hits = index.search("computer", 1, 2);
+
+		assertThat(hits.total()).isEqualTo(3);
+		assertThat(hits.ids()).containsExactly(2L, 4L);
+	}
+
+	@Test
+	void followsUpdatesAndDeletes() {
+		index.index(student(3L, "Aysel", "Quliyeva", "Finance"));
+		index.remove(1L);
+
+		assertThat(index.search("law", 0, 10).ids()).isEmpty();
+		assertThat(index.search("finance", 0, 10).ids()).containsExactly(3L);
+		assertThat(index.search("mammadov", 0, 10).ids()).isEmpty();
+		assertThat(index.size()).isEqualTo(3);
+	}
+
+	@Test
+	void rebuildKeepsChangesMadeWhileItReads() {
+		StudentSearchIndex[] index = new StudentSearchIndex[1];
+		// The only batch is read before student 1 is deleted and student 2 is renamed
+		StudentRepository studentRepo = (StudentRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[]{StudentRepository.class}, (proxy, method, args) -> {
+					if (!method.getName().equals("findByIdGreaterThanOrderByIdAsc")) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					List<Student> batch = List.of(student(1L, "Ravan", "Mammadov", "Computer Engineering"),
+							student(2L, "Kimse", "Ravanli", "Computer Science"));
+					index[0].remove(1L);
+					index[0].index(student(2L, "Kimse", "Huseynli", "Computer Science"));
+					assertThat(index[0].search("mammadov", 0, 10).ids()).isEmpty();
+					return batch;
+				});
+		StudentSearchIndex rebuilding = new StudentSearchIndex(studentRepo);
+		index[0] = rebuilding;
+		rebuilding.index(student(1L, "Ravan", "Mammadov", "Computer Engineering"));
+
+		rebuilding.rebuild();
+
+		assertThat(rebuilding.search("mammadov", 0, 10).ids()).isEmpty();
+		assertThat(rebuilding.search("ravanli", 0, 10).ids()).isEmpty();
+		assertThat(rebuilding.search("huseynli", 0, 10).ids()).containsExactly(2L);
+		assertThat(rebuilding.size()).isEqualTo(1);
+	}
+
+	private static Student student(Long id, String name, String surname, String major) {
+		return Student.builder().id(id).name(name).surname(surname).major(major).build();
+	}
+}
@@ -0,0 +1,90 @@
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import az.edu.ada.wm2.assignment1.dto.CourseSummary;
+import az.edu.ada.wm2.assignment1.model.Course;
+import az.edu.ada.wm2.assignment1.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Enrolling and dropping evict only the course they change from the second-level cache,
+ * while the catalog query still reflects the new enrollment counts.
+ */
+@SpringBootTest
+class CatalogCacheTests {
+
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Cache cache;
+
+	@BeforeEach
+	void setUp() {
+		cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+	}
+
+	@Test
+	void enrollAndDropEvictOnlyTheirCourse() {
+		Long changed = testData.createCourse(5);
+		Long untouched = testData.createCourse(5);
+		Long studentId = testData.createStudents(1).get(0);
+		courseService.getById(changed);
+		courseService.getById(untouched);
+		assertThat(cache.containsEntity(Course.class, untouched)).isTrue();
+
+		assertThat(enrollmentService.enroll(studentId, changed)).isEqualTo(EnrollmentService.Result.ENROLLED);
+
+		assertThat(cache.containsEntity(Course.class, changed)).isFalse();
+		assertThat(cache.containsEntity(Course.class, untouched)).isTrue();
+		assertThat(courseService.getById(changed).getNumberOfStudents()).isEqualTo(1);
+		assertThat(enrollmentCount(changed)).isEqualTo(1);
+
+		assertThat(enrollmentService.drop(studentId, changed)).isTrue();
+
+		assertThat(cache.containsEntity(Course.class, untouched)).isTrue();
+		assertThat(courseService.getById(changed).getNumberOfStudents()).isZero();
+		assertThat(enrollmentCount(changed)).isZero();
+	}
+
+	@Test
+	void bulkEnrollmentEvictsOnlyItsCourses() {
+		Long changed = testData.createCourse(5);
+		Long untouched = testData.createCourse(5);
+		List<Long> studentIds = testData.createStudents(3);
+		courseService.getById(changed);
+		courseService.getById(untouched);
+		enrollmentCount(changed);
+
+		enrollmentService.enrollAll(studentIds, List.of(changed));
+
+		assertThat(cache.containsEntity(Course.class, untouched)).isTrue();
+		assertThat(courseService.getById(changed).getNumberOfStudents()).isEqualTo(3);
+		assertThat(enrollmentCount(changed)).isEqualTo(3);
+	}
+
+	private long enrollmentCount(Long courseId) {
+		return courseService.listCatalog().stream()
+				.filter(course -> course.getId().equals(courseId))
+				.mapToLong(CourseSummary::getNumberOfStudents)
+				.findFirst()
+				.orElseThrow();
+	}
+}
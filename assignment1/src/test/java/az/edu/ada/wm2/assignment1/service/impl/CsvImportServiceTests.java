@@ -0,0 +1,74 @@
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import az.edu.ada.wm2.assignment1.dto.ImportReport;
+import az.edu.ada.wm2.assignment1.search.StudentSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class CsvImportServiceTests {
+
+	private static final String MAJOR = "Csv Import";
+
+	@Autowired
+	private CsvImportService csvImportService;
+
+	@Autowired
+	private StudentSearchIndex searchIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void databaseFailureRejectsOnlyItsRowAndTheRestIsCommittedAndIndexed() throws Exception {
+		StringBuilder csv = new StringBuilder("name,surname,major,date_of_birth\n");
+		for (int line = 2; line <= 121; line++) {
+			if (line == 3) {
+				csv.append("Bad,Date,").append(MAJOR).append(",yesterday\n");
+			} else if (line == 70) {
+				// Too long for the surname column, so only the database rejects it
+				csv.append("Long,Zqimported").append("x".repeat(300)).append(',').append(MAJOR).append(",\n");
+			} else {
+				csv.append("Student").append(line).append(",Zqimported,").append(MAJOR).append(",2001-02-03\n");
+			}
+		}
+
+		ImportReport report = csvImportService.importStudents(
+				new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), List.of(MAJOR));
+
+		assertThat(report.getRowsRead()).isEqualTo(120);
+		assertThat(report.getImported()).isEqualTo(118);
+		assertThat(report.getErrorCount()).isEqualTo(2);
+		assertThat(report.getErrors()).hasSize(2);
+		assertThat(report.getErrors().get(0)).startsWith("line 3: ");
+		assertThat(report.getErrors().get(1)).startsWith("line 70: ");
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM students WHERE major = ?", Integer.class, MAJOR))
+				.isEqualTo(118);
+		assertThat(searchIndex.search("zqimported", 0, 10).total()).isEqualTo(118);
+	}
+
+	@Test
+	void coursesWithInvalidCapacityAreRejected() throws Exception {
+		String csv = """
+				course_name,teacher_name,course_description,credit,capacity
+				Csv Import Course,Teacher,Imported,6,40
+				Csv Import Empty Course,Teacher,Imported,6,0
+				Csv Import Default Course,Teacher,Imported,5,
+				""";
+
+		ImportReport report = csvImportService.importCourses(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)));
+
+		assertThat(report.getImported()).isEqualTo(2);
+		assertThat(report.getErrors()).containsExactly("line 3: capacity must be at least 1 but is 0");
+		assertThat(jdbcTemplate.queryForList("SELECT capacity FROM courses WHERE course_name LIKE 'Csv Import%' " +
+				"ORDER BY course_name", Integer.class)).containsExactly(40, 30);
+	}
+}
@@ -0,0 +1,113 @@
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import az.edu.ada.wm2.assignment1.dto.MajorStats;
+import az.edu.ada.wm2.assignment1.model.Course;
+import az.edu.ada.wm2.assignment1.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EnrollmentAnalyticsTests {
+
+	private static final String MAJOR = "Enrollment Analytics";
+	private static final String DRIFTING_MAJOR = "Drifting Analytics";
+
+	@Autowired
+	private EnrollmentAnalytics analytics;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	@Test
+	void countersFollowEveryWrite() {
+		Long first = testData.createStudent("First", MAJOR);
+		Long second = testData.createStudent("Second", MAJOR);
+		Long third = testData.createStudent("Third", MAJOR);
+		Course lecture = testData.createCourse("Lecture", 6, 10);
+		Course lab = testData.createCourse("Lab", 2, 10);
+
+		enrollmentService.enroll(first, lecture.getId());
+		enrollmentService.enroll(first, lab.getId());
+		enrollmentService.enroll(second, lecture.getId());
+		enrollmentService.enrollAll(List.of(second, third), List.of(lab.getId()));
+		assertLoad(first, 2, 8);
+		assertLoad(second, 2, 8);
+		assertLoad(third, 1, 2);
+		assertMajor(3, 5, 18);
+
+		enrollmentService.drop(first, lab.getId());
+		assertLoad(first, 1, 6);
+		assertMajor(3, 4, 16);
+
+		lecture.setCredit(4);
+		courseService.save(lecture);
+		assertLoad(first, 1, 4);
+		assertLoad(second, 2, 6);
+		assertMajor(3, 4, 12);
+
+		courseService.deleteById(lab.getId());
+		assertLoad(second, 1, 4);
+		assertLoad(third, 0, 0);
+		assertMajor(3, 2, 8);
+
+		studentService.deleteById(first);
+		assertMajor(2, 1, 4);
+	}
+
+	@Test
+	void rebuildRepairsTheDriftThatVerifyReports() {
+		Long student = testData.createStudent("Drifting", DRIFTING_MAJOR);
+		Course course = testData.createCourse("Drift", 3, 10);
+		enrollmentService.enroll(student, course.getId());
+		analytics.rebuild();
+		assertThat(analytics.verify().isConsistent()).isTrue();
+
+		jdbcTemplate.update("UPDATE students SET enrolled_credits = 99 WHERE id = ?", student);
+		jdbcTemplate.update("UPDATE major_stats SET students = students + 1 WHERE major = ?", DRIFTING_MAJOR);
+		EnrollmentAnalytics.Consistency drift = analytics.verify();
+		assertThat(drift.studentMismatches()).isEqualTo(1);
+		assertThat(drift.majorMismatches()).isEqualTo(1);
+
+		assertThat(analytics.rebuild()).isEqualTo(drift);
+		assertThat(analytics.verify().isConsistent()).isTrue();
+		assertLoad(student, 1, 3);
+	}
+
+	private void assertLoad(Long studentId, int courses, int credits) {
+		assertThat(jdbcTemplate.queryForList("SELECT enrolled_courses, enrolled_credits FROM students WHERE id = ?",
+				studentId))
+				.singleElement()
+				.satisfies(row -> {
+					assertThat(((Number) row.get("ENROLLED_COURSES")).intValue()).isEqualTo(courses);
+					assertThat(((Number) row.get("ENROLLED_CREDITS")).intValue()).isEqualTo(credits);
+				});
+	}
+
+	private void assertMajor(long students, long courses, long credits) {
+		MajorStats stats = analytics.listMajors().stream()
+				.filter(major -> major.getMajor().equals(MAJOR))
+				.findFirst()
+				.orElseThrow();
+		assertThat(stats.getStudents()).isEqualTo(students);
+		assertThat(stats.getEnrolledCourses()).isEqualTo(courses);
+		assertThat(stats.getEnrolledCredits()).isEqualTo(credits);
+	}
+}
@@ -0,0 +1,154 @@
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import az.edu.ada.wm2.assignment1.model.Course;
+import az.edu.ada.wm2.assignment1.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.Errors;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class EnrollmentServiceTests {
+
+	private static final int THREADS = 16;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private TestData testData;
+
+	@Test
+	void concurrentEnrollAndDropKeepTheSeatCounterExact() throws Exception {
+		Long courseId = testData.createCourse(25);
+		List<Long> studentIds = testData.createStudents(200);
+
+		List<EnrollmentService.Result> enrolled = runConcurrently(studentIds.stream()
+				.map(studentId -> (Callable<EnrollmentService.Result>) () -> enrollmentService.enroll(studentId, courseId))
+				.toList());
+
+		assertThat(enrolled).filteredOn(r -> r == EnrollmentService.Result.ENROLLED).hasSize(25);
+		assertThat(enrolled).filteredOn(r -> r == EnrollmentService.Result.COURSE_FULL).hasSize(175);
+		assertThat(testData.seatCounter(courseId)).isEqualTo(25);
+		assertThat(testData.enrollmentRows(courseId)).isEqualTo(25);
+
+		List<Boolean> dropped = runConcurrently(studentIds.stream()
+				.map(studentId -> (Callable<Boolean>) () -> enrollmentService.drop(studentId, courseId))
+				.toList());
+
+		assertThat(dropped).filteredOn(Boolean::booleanValue).hasSize(25);
+		assertThat(testData.seatCounter(courseId)).isZero();
+		assertThat(testData.enrollmentRows(courseId)).isZero();
+	}
+
+	@Test
+	void concurrentDuplicateEnrollmentsTakeOneSeat() throws Exception {
+		Long courseId = testData.createCourse(10);
+		Long studentId = testData.createStudents(1).get(0);
+
+		List<EnrollmentService.Result> results = runConcurrently(IntStream.range(0, 100)
+				.mapToObj(i -> (Callable<EnrollmentService.Result>) () -> enrollmentService.enroll(studentId, courseId))
+				.toList());
+
+		assertThat(results).filteredOn(r -> r == EnrollmentService.Result.ENROLLED).hasSize(1);
+		assertThat(testData.seatCounter(courseId)).isEqualTo(1);
+		assertThat(testData.enrollmentRows(courseId)).isEqualTo(1);
+	}
+
+	@Test
+	void missingCourseIsNotFoundRatherThanFull() {
+		Long studentId = testData.createStudents(1).get(0);
+		Long fullCourseId = testData.createCourse(1);
+		enrollmentService.enroll(testData.createStudents(1).get(0), fullCourseId);
+
+		assertThat(enrollmentService.enroll(studentId, fullCourseId)).isEqualTo(EnrollmentService.Result.COURSE_FULL);
+		assertThat(enrollmentService.enroll(studentId, -1L)).isEqualTo(EnrollmentService.Result.COURSE_NOT_FOUND);
+	}
+
+	@Test
+	void missingStudentIsNotFoundAndTakesNoSeat() {
+		Long courseId = testData.createCourse(1);
+
+		assertThat(enrollmentService.enroll(-1L, courseId)).isEqualTo(EnrollmentService.Result.STUDENT_NOT_FOUND);
+		assertThat(testData.seatCounter(courseId)).isZero();
+		assertThat(testData.enrollmentRows(courseId)).isZero();
+	}
+
+	@Test
+	void bulkEnrollmentWritesNothingWhenACourseIsFullOrMissing() {
+		Long roomy = testData.createCourse(10);
+		Long small = testData.createCourse(2);
+		List<Long> studentIds = testData.createStudents(3);
+
+		EnrollmentService.BulkResult full = enrollmentService.enrollAll(studentIds, List.of(roomy, small));
+		EnrollmentService.BulkResult missing = enrollmentService.enrollAll(studentIds, List.of(roomy, -1L));
+
+		assertThat(full).isEqualTo(new EnrollmentService.BulkResult(EnrollmentService.Result.COURSE_FULL, small, 0));
+		assertThat(missing).isEqualTo(new EnrollmentService.BulkResult(EnrollmentService.Result.COURSE_NOT_FOUND, -1L, 0));
+		assertThat(testData.seatCounter(roomy)).isZero();
+		assertThat(testData.enrollmentRows(roomy)).isZero();
+
+		enrollmentService.enroll(studentIds.get(0), roomy);
+		EnrollmentService.BulkResult enrolled = enrollmentService.enrollAll(studentIds, List.of(roomy));
+
+		assertThat(enrolled.result()).isEqualTo(EnrollmentService.Result.ENROLLED);
+		assertThat(enrolled.created()).isEqualTo(2);
+		assertThat(testData.seatCounter(roomy)).isEqualTo(3);
+		assertThat(testData.enrollmentRows(roomy)).isEqualTo(3);
+	}
+
+	@Test
+	void capacityCanNotDropBelowTheSeatsTaken() {
+		Course course = testData.createCourse("Shrinking", 6, 5);
+		testData.createStudents(3).forEach(studentId -> enrollmentService.enroll(studentId, course.getId()));
+
+		course.setCapacity(2);
+		Errors errors = new BeanPropertyBindingResult(course, "course");
+		courseService.save(course, errors);
+
+		assertThat(errors.getFieldError("capacity")).isNotNull();
+		assertThat(courseService.getById(course.getId()).getCapacity()).isEqualTo(5);
+
+		course.setCapacity(3);
+		courseService.save(course);
+		assertThat(courseService.getById(course.getId()).getCapacity()).isEqualTo(3);
+		assertThat(testData.seatCounter(course.getId())).isEqualTo(3);
+	}
+
+	private <T> List<T> runConcurrently(List<Callable<T>> tasks) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		try {
+			List<Future<T>> futures = new ArrayList<>();
+			for (Callable<T> task : tasks) {
+				futures.add(pool.submit(() -> {
+					start.await();
+					return task.call();
+				}));
+			}
+			start.countDown();
+			List<T> results = new ArrayList<>();
+			for (Future<T> future : futures) {
+				results.add(future.get());
+			}
+			return results;
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,108 @@
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import az.edu.ada.wm2.assignment1.dto.RegistrationTicket;
+import az.edu.ada.wm2.assignment1.model.EnrollmentId;
+import az.edu.ada.wm2.assignment1.support.TestData;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrlPattern;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.registration.queued=true")
+@AutoConfigureMockMvc
+class RegistrationQueueTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private RegistrationQueue registrationQueue;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void batchAdmitsRequestsInArrivalOrderWhileSeatsAreLeft() {
+		Long courseId = testData.createCourse(2);
+		List<Long> students = testData.createStudents(3);
+
+		List<EnrollmentService.Result> results = enrollmentService.enrollBatch(List.of(
+				new EnrollmentId(students.get(0), courseId),
+				new EnrollmentId(students.get(1), courseId),
+				new EnrollmentId(students.get(0), courseId),
+				new EnrollmentId(students.get(2), courseId),
+				new EnrollmentId(students.get(2), -1L),
+				new EnrollmentId(-1L, courseId)));
+
+		assertThat(results).containsExactly(
+				EnrollmentService.Result.ENROLLED,
+				EnrollmentService.Result.ENROLLED,
+				EnrollmentService.Result.ALREADY_ENROLLED,
+				EnrollmentService.Result.COURSE_FULL,
+				EnrollmentService.Result.COURSE_NOT_FOUND,
+				EnrollmentService.Result.STUDENT_NOT_FOUND);
+		assertThat(testData.seatCounter(courseId)).isEqualTo(2);
+		assertThat(testData.enrollmentRows(courseId)).isEqualTo(2);
+		assertThat(jdbcTemplate.queryForObject("SELECT enrolled_credits FROM students WHERE id = ?", Integer.class,
+				students.get(0))).isEqualTo(6);
+	}
+
+	@Test
+	void queuedRequestsEndWithTheOutcomeOfTheirBatch() {
+		Long courseId = testData.createCourse(25);
+		List<RegistrationTicket> tickets = testData.createStudents(100).stream()
+				.map(studentId -> registrationQueue.submit(studentId, courseId).orElseThrow())
+				.toList();
+
+		List<RegistrationTicket> done = tickets.stream()
+				.map(ticket -> registrationQueue.await(ticket.id(), Duration.ofSeconds(10)).orElseThrow())
+				.toList();
+
+		assertThat(done).allMatch(RegistrationTicket::isDone);
+		assertThat(done).filteredOn(t -> t.status() == RegistrationTicket.Status.ENROLLED).hasSize(25);
+		assertThat(done).filteredOn(t -> t.status() == RegistrationTicket.Status.COURSE_FULL).hasSize(75);
+		assertThat(registrationQueue.find(tickets.get(0).id())).contains(done.get(0));
+		assertThat(testData.seatCounter(courseId)).isEqualTo(25);
+		assertThat(testData.enrollmentRows(courseId)).isEqualTo(25);
+	}
+
+	@Test
+	void takeButtonShowsTheTicketPageWithoutWaitingForTheBatch() throws Exception {
+		Long courseId = testData.createCourse(1);
+		Long studentId = testData.createStudents(1).get(0);
+
+		MvcResult result = mockMvc.perform(get("/course/takeCourse/{studentId}/selectedCourse/{courseId}",
+						studentId, courseId))
+				.andExpect(redirectedUrlPattern("/course/registration/*"))
+				.andReturn();
+
+		String id = result.getResponse().getRedirectedUrl().substring("/course/registration/".length());
+		assertThat(registrationQueue.await(id, Duration.ofSeconds(10)).orElseThrow().status())
+				.isEqualTo(RegistrationTicket.Status.ENROLLED);
+		mockMvc.perform(get("/course/registration/{id}", id))
+				.andExpect(status().isOk());
+	}
+
+	@Test
+	void unknownTicketIsNotFound() throws Exception {
+		mockMvc.perform(get("/course/registration/{id}", "no-such-ticket"))
+				.andExpect(status().isNotFound());
+	}
+}
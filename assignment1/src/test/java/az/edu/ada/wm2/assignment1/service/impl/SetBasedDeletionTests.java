@@ -0,0 +1,91 @@
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import az.edu.ada.wm2.assignment1.repository.CourseRepository;
+import az.edu.ada.wm2.assignment1.repository.StudentRepository;
+import az.edu.ada.wm2.assignment1.support.TestData;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class SetBasedDeletionTests {
+
+	@Autowired
+	private CourseService courseService;
+
+	@Autowired
+	private StudentService studentService;
+
+	@Autowired
+	private EnrollmentService enrollmentService;
+
+	@Autowired
+	private CourseRepository courseRepo;
+
+	@Autowired
+	private StudentRepository studentRepo;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TestData testData;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void deletingACourseTakesFiveStatementsRegardlessOfEnrollments() {
+		Long courseId = testData.createCourse(500);
+		List<Long> studentIds = testData.createStudents(500, "Physics");
+		enrollmentService.enrollAll(studentIds, List.of(courseId));
+
+		statistics.clear();
+		courseService.deleteById(courseId);
+
+		// Locking the course, the two updates of the enrollment analytics and two deletes
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+		assertThat(courseRepo.existsById(courseId)).isFalse();
+		assertThat(countRows("SELECT COUNT(*) FROM student_course WHERE course_id = ?", courseId)).isZero();
+		assertThat(studentRepo.findAllById(studentIds)).hasSize(500);
+	}
+
+	@Test
+	void deletingStudentsInBulkTakesSixStatementsAndFreesTheirSeats() {
+		Long first = testData.createCourse(300);
+		Long second = testData.createCourse(300);
+		List<Long> studentIds = testData.createStudents(300, "Physics");
+		enrollmentService.enrollAll(studentIds, List.of(first, second));
+		List<Long> leaving = studentIds.subList(0, 200);
+
+		statistics.clear();
+		studentService.deleteAllById(leaving);
+
+		// Locking the courses, releasing their seats, locking the students, moving their major totals and two deletes
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(6);
+		assertThat(studentRepo.findAllById(leaving)).isEmpty();
+		assertThat(testData.seatCounter(first)).isEqualTo(100);
+		assertThat(testData.seatCounter(second)).isEqualTo(100);
+		assertThat(countRows("SELECT COUNT(*) FROM student_course WHERE course_id = ?", first)).isEqualTo(100);
+	}
+
+	private int countRows(String sql, Long id) {
+		return jdbcTemplate.queryForObject(sql, Integer.class, id);
+	}
+}
@@ -0,0 +1,75 @@
+package az.edu.ada.wm2.assignment1.service.impl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Generates thousands of rows, so it runs against a database of its own that is dropped with its context,
+ * rather than against the database the other tests share.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:syntheticDataGeneratorTests")
+@DirtiesContext
+class SyntheticDataGeneratorTests {
+
+	@Autowired
+	private SyntheticDataGenerator generator;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void sameSeedGeneratesTheSameDataAndKeepsCountersConsistent() {
+		long enrollmentsBefore = count("SELECT COUNT(*) FROM student_course");
+
+		Generated first = generate(7);
+		Generated second = generate(7);
+		Generated other = generate(8);
+
+		assertThat(second).isEqualTo(first);
+		assertThat(other.students()).isNotEqualTo(first.students());
+		assertThat(other.enrollments()).isNotEqualTo(first.enrollments());
+		assertThat(first.students()).hasSize(500);
+		assertThat(first.courses()).hasSize(20);
+		assertThat(first.enrollments()).hasSize(1500);
+		assertThat(count("SELECT COUNT(*) FROM student_course")).isEqualTo(enrollmentsBefore + 3 * 1500);
+		assertThat(count("SELECT COUNT(*) FROM courses c WHERE number_of_students <> " +
+				"(SELECT COUNT(*) FROM student_course sc WHERE sc.course_id = c.id)")).isZero();
+		assertThat(count("SELECT COUNT(*) FROM courses WHERE number_of_students > capacity")).isZero();
+	}
+
+	/**
+	 * The rows one generation persisted, with IDs taken relative to the first ID it used,
+	 * so two generations with the same seed compare equal wherever their IDs start.
+	 */
+	private record Generated(List<Map<String, Object>> students, List<Map<String, Object>> courses,
+							 List<Map<String, Object>> enrollments) {
+	}
+
+	private Generated generate(long seed) {
+		long studentsBefore = count("SELECT COALESCE(MAX(id), 0) FROM students");
+		long coursesBefore = count("SELECT COALESCE(MAX(id), 0) FROM courses");
+		generator.generate(seed, 500, 20, 3);
+		long firstStudent = count("SELECT MIN(id) FROM students WHERE id > " + studentsBefore);
+		long firstCourse = count("SELECT MIN(id) FROM courses WHERE id > " + coursesBefore);
+		return new Generated(
+				jdbcTemplate.queryForList("SELECT name, surname, major, date_of_birth FROM students " +
+						"WHERE id >= ? ORDER BY id", firstStudent),
+				jdbcTemplate.queryForList("SELECT course_name, teacher_name, course_description, credit, capacity, " +
+						"number_of_students FROM courses WHERE id >= ? ORDER BY id", firstCourse),
+				jdbcTemplate.queryForList("SELECT student_id - ? AS student, course_id - ? AS course, enrolled_at " +
+						"FROM student_course WHERE student_id >= ? ORDER BY student, course",
+						firstStudent, firstCourse, firstStudent));
+	}
+
+	private long count(String sql) {
+		return jdbcTemplate.queryForObject(sql, Long.class);
+	}
+}
@@ -0,0 +1,28 @@
+package az.edu.ada.wm2.assignment1.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails the annotated test if the code it runs on the test thread, including MockMvc requests,
+ * executes more JDBC statements or fetches more rows than declared.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(SqlStatementBudgetExtension.class)
+public @interface SqlStatementBudget {
+
+	/**
+	 * @return The maximum number of JDBC statements the test may execute.
+	 */
+	long statements();
+
+	/**
+	 * @return The maximum number of rows the test may fetch, or -1 for no limit.
+	 */
+	long rows() default -1;
+}
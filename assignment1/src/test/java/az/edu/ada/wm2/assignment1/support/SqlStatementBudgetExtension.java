@@ -0,0 +1,35 @@
+package az.edu.ada.wm2.assignment1.support;
+
+import az.edu.ada.wm2.assignment1.monitoring.SqlStatementCounter;
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Counts the statements of a test annotated with SqlStatementBudget and fails it when the budget is exceeded.
+ */
+class SqlStatementBudgetExtension implements BeforeEachCallback, AfterEachCallback {
+
+	private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SqlStatementBudgetExtension.class);
+
+	@Override
+	public void beforeEach(ExtensionContext context) {
+		context.getStore(NAMESPACE).put("scope", SqlStatementCounter.open());
+	}
+
+	@Override
+	public void afterEach(ExtensionContext context) {
+		SqlStatementCounter.Scope scope = context.getStore(NAMESPACE).remove("scope", SqlStatementCounter.Scope.class);
+		scope.close();
+		SqlStatementBudget budget = context.getRequiredTestMethod().getAnnotation(SqlStatementBudget.class);
+		if (scope.getStatements() > budget.statements()) {
+			throw new AssertionFailedError("Expected at most " + budget.statements() + " SQL statements but "
+					+ scope.getStatements() + " were executed", budget.statements(), scope.getStatements());
+		}
+		if (budget.rows() >= 0 && scope.getRows() > budget.rows()) {
+			throw new AssertionFailedError("Expected at most " + budget.rows() + " fetched rows but "
+					+ scope.getRows() + " were fetched", budget.rows(), scope.getRows());
+		}
+	}
+}
@@ -0,0 +1,111 @@
+package az.edu.ada.wm2.assignment1.support;
+
+import az.edu.ada.wm2.assignment1.model.Course;
+import az.edu.ada.wm2.assignment1.model.Student;
+import az.edu.ada.wm2.assignment1.service.impl.CourseService;
+import az.edu.ada.wm2.assignment1.service.impl.StudentService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Creates the students and courses a test works on and reads back the counters it asserts on.
+ * Rows are created through the services, so the search index and the enrollment analytics stay consistent with the
+ * shared test database. Found by the component scan of every test context, so tests simply autowire it.
+ */
+@Component
+public class TestData {
+
+	private static final String MAJOR = "Mathematics";
+
+	private final StudentService studentService;
+	private final CourseService courseService;
+	private final TransactionTemplate transactionTemplate;
+	private final JdbcTemplate jdbcTemplate;
+
+	public TestData(StudentService studentService, CourseService courseService,
+					PlatformTransactionManager transactionManager, JdbcTemplate jdbcTemplate) {
+		this.studentService = studentService;
+		this.courseService = courseService;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * @param capacity The number of seats.
+	 * @return The ID of a new course worth 6 credits.
+	 */
+	public Long createCourse(int capacity) {
+		return createCourse("Test Course", 6, capacity).getId();
+	}
+
+	/**
+	 * @param name The name of the course.
+	 * @param credit The credit of the course.
+	 * @param capacity The number of seats.
+	 * @return The new course.
+	 */
+	public Course createCourse(String name, int credit, int capacity) {
+		Course course = new Course();
+		course.setCourseName(name);
+		course.setTeacherName("Test");
+		course.setCredit(credit);
+		course.setCapacity(capacity);
+		courseService.save(course);
+		return course;
+	}
+
+	/**
+	 * @param name The name of the student.
+	 * @param major The major of the student.
+	 * @return The ID of the new student.
+	 */
+	public Long createStudent(String name, String major) {
+		Student student = Student.builder()
+				.name(name)
+				.surname("Tested")
+				.major(major)
+				.build();
+		studentService.save(student);
+		return student.getId();
+	}
+
+	/**
+	 * @param count The number of students.
+	 * @return The IDs of new students of the same major, created in one transaction.
+	 */
+	public List<Long> createStudents(int count) {
+		return createStudents(count, MAJOR);
+	}
+
+	/**
+	 * @param count The number of students.
+	 * @param major The major of the students.
+	 * @return The IDs of the new students, created in one transaction.
+	 */
+	public List<Long> createStudents(int count, String major) {
+		return transactionTemplate.execute(status -> IntStream.range(0, count)
+				.mapToObj(i -> createStudent("Student" + i, major))
+				.toList());
+	}
+
+	/**
+	 * @param courseId The ID of the course.
+	 * @return The seat counter of the course as stored, bypassing every cache.
+	 */
+	public int seatCounter(Long courseId) {
+		return jdbcTemplate.queryForObject("SELECT number_of_students FROM courses WHERE id = ?", Integer.class, courseId);
+	}
+
+	/**
+	 * @param courseId The ID of the course.
+	 * @return The number of students enrolled in the course.
+	 */
+	public int enrollmentRows(Long courseId) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_course WHERE course_id = ?", Integer.class, courseId);
+	}
+}